@@ -0,0 +1,144 @@
+package Matrix;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One iteration of evaporation, deposit, choice information and probability pass over 10 tours, on the
+// old jagged double[][] layout (reproduced here) against the flat row-major matrices, double and float
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"--enable-preview", "--add-modules=jdk.incubator.vector"})
+public class MatrixLayoutBenchmark {
+    private static final int ANTS = 10;
+    private static final double ALPHA = 1, EVAPORATION = 0.5, Q = 500;
+
+    @State(Scope.Thread)
+    public static class Colony {
+        @Param({"500", "2000"})
+        int cities;
+
+        @Param({"jagged", "double", "float"})
+        String layout;
+
+        int[][] tours;
+        boolean[] visited;
+        double[] probabilities;
+        int[] columns;
+
+        double[][] jaggedTrails, jaggedHeuristic, jaggedChoice; // jagged layout only
+        WeightMatrix trails, heuristic, choice;                 // flat layouts only
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(42);
+            tours = new int[ANTS][cities];
+            for (int[] tour : tours) {
+                for (int i = 0; i < cities; i++) tour[i] = i;
+                for (int i = cities - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1), swap = tour[i];
+                    tour[i] = tour[j];
+                    tour[j] = swap;
+                }
+            }
+            visited = new boolean[cities];
+            probabilities = new double[cities];
+            columns = new int[cities];
+
+            if (layout.equals("jagged")) {
+                jaggedTrails = new double[cities][cities];
+                jaggedHeuristic = new double[cities][cities];
+                jaggedChoice = new double[cities][cities];
+                for (int i = 0; i < cities; i++) {
+                    Arrays.fill(jaggedTrails[i], 1.0);
+                    for (int j = 0; j < cities; j++) jaggedHeuristic[i][j] = random.nextDouble();
+                }
+                return;
+            }
+            trails = layout.equals("double") ? new DoubleWeightMatrix(cities) : new FloatWeightMatrix(cities);
+            heuristic = trails.copy();
+            choice = trails.copy();
+            trails.fill(1.0);
+            for (int i = 0; i < cities; i++)
+                for (int j = 0; j < cities; j++) heuristic.set(i, j, random.nextDouble());
+        }
+    }
+
+    @Benchmark
+    public double iteration(Colony colony) {
+        return colony.trails == null ? jaggedIteration(colony) : flatIteration(colony);
+    }
+
+    private static double jaggedIteration(Colony colony) {
+        int n = colony.cities;
+        double[][] trails = colony.jaggedTrails, heuristic = colony.jaggedHeuristic, choice = colony.jaggedChoice;
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++) trails[i][j] *= EVAPORATION;
+        for (int[] tour : colony.tours) {
+            for (int i = 0; i < n - 1; i++) trails[tour[i]][tour[i + 1]] += Q / n;
+            trails[tour[n - 1]][tour[0]] += Q / n;
+        }
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++) choice[i][j] = Math.pow(trails[i][j], ALPHA) * heuristic[i][j];
+
+        double[] probabilities = colony.probabilities;
+        int[] columns = colony.columns;
+        double sink = 0;
+        for (int[] tour : colony.tours) {
+            Arrays.fill(colony.visited, false);
+            for (int step = 0; step < n - 1; step++) {
+                int current = tour[step];
+                colony.visited[current] = true;
+                int count = unvisited(colony.visited, columns);
+                double total = 0.0;
+                for (int k = 0; k < count; k++) {
+                    probabilities[k] = choice[current][columns[k]];
+                    total += probabilities[k];
+                }
+                for (int k = 0; k < count; k++) probabilities[k] /= total;
+                sink += probabilities[0];
+            }
+        }
+        return sink;
+    }
+
+    private static double flatIteration(Colony colony) {
+        int n = colony.cities;
+        WeightMatrix trails = colony.trails, heuristic = colony.heuristic, choice = colony.choice;
+        for (int i = 0; i < n; i++) trails.scaleRow(i, EVAPORATION);
+        for (int[] tour : colony.tours) {
+            for (int i = 0; i < n - 1; i++) trails.add(tour[i], tour[i + 1], Q / n);
+            trails.add(tour[n - 1], tour[0], Q / n);
+        }
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++) choice.set(i, j, Math.pow(trails.get(i, j), ALPHA) * heuristic.get(i, j));
+
+        double[] probabilities = colony.probabilities;
+        int[] columns = colony.columns;
+        double sink = 0;
+        for (int[] tour : colony.tours) {
+            Arrays.fill(colony.visited, false);
+            for (int step = 0; step < n - 1; step++) {
+                int current = tour[step];
+                colony.visited[current] = true;
+                int count = unvisited(colony.visited, columns);
+                double total = choice.gatherRow(current, columns, count, probabilities);
+                for (int k = 0; k < count; k++) probabilities[k] /= total;
+                sink += probabilities[0];
+            }
+        }
+        return sink;
+    }
+
+    // Cities not yet visited, written to columns; returns how many
+    private static int unvisited(boolean[] visited, int[] columns) {
+        int count = 0;
+        for (int j = 0; j < visited.length; j++)
+            if (!visited[j]) columns[count++] = j;
+        return count;
+    }
+}
@@ -0,0 +1,77 @@
+package Matrix;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One row of each row kernel, scalar against Vector API: evaporation, the MMAS clamp, the gathered
+// normalization sum over the unvisited cities and the choice-information product at alpha 1 and 1.5
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"--enable-preview", "--add-modules=jdk.incubator.vector"})
+public class RowKernelBenchmark {
+
+    @State(Scope.Thread)
+    public static class Row {
+        @Param({"scalar", "vector"})
+        String kernel;
+
+        @Param({"1000", "4000"})
+        int length;
+
+        RowKernels kernels;
+        double[] trails;
+        double[] heuristic;
+        double[] out;
+        int[] columns; // unvisited cities of a tour half built, in city order
+        int count;
+        boolean evaporate; // scale alternates between evaporation and its inverse, so the row stays put
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            kernels = kernel.equals("vector") ? RowKernels.vector() : RowKernels.scalar();
+            if (kernels == null) throw new IllegalStateException("jdk.incubator.vector is not available");
+            SplittableRandom random = new SplittableRandom(42);
+            trails = new double[length];
+            heuristic = new double[length];
+            out = new double[length];
+            columns = new int[length];
+            for (int j = 0; j < length; j++) {
+                trails[j] = random.nextDouble(0.5, 1.5);
+                heuristic[j] = random.nextDouble();
+                if (random.nextBoolean()) columns[count++] = j;
+            }
+        }
+    }
+
+    @Benchmark
+    public void evaporate(Row row) {
+        row.evaporate = !row.evaporate;
+        row.kernels.scale(row.trails, 0, row.length, row.evaporate ? 0.5 : 2.0);
+    }
+
+    @Benchmark
+    public void clamp(Row row) {
+        row.kernels.clamp(row.trails, 0, row.length, 0.75, 1.25);
+    }
+
+    @Benchmark
+    public double gather(Row row) {
+        return row.kernels.gather(row.trails, 0, row.columns, row.count, row.out);
+    }
+
+    @Benchmark
+    public double[] choiceAlphaOne(Row row) {
+        row.kernels.powerProduct(row.trails, row.heuristic, row.out, 0, row.length, 1.0);
+        return row.out;
+    }
+
+    @Benchmark
+    public double[] choiceAlphaOneAndAHalf(Row row) {
+        row.kernels.powerProduct(row.trails, row.heuristic, row.out, 0, row.length, 1.5);
+        return row.out;
+    }
+}
@@ -0,0 +1,126 @@
+package Parallel;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Solver phases of the parallel engine. For the single-phase benchmarks the workers run with separate
+// phases, so the row update waits for awaitTrailUpdate instead of overlapping updateBest, and the
+// per-invocation fixtures move the colony to the phase being timed. The full iteration keeps the overlap.
+// Every phase runs under both schedulers: fixed worker ranges and fork/join work stealing.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"--enable-preview", "--add-modules=jdk.incubator.vector"})
+public class ParallelBenchmark {
+
+    @State(Scope.Benchmark)
+    public abstract static class Colony {
+        @Param({"100", "200", "500"})
+        int cities;
+
+        @Param({"0.5", "1.0"})
+        double antFactor; // ants per city
+
+        @Param({"1", "2", "4", "8", "16", "32", "64"})
+        int threads;
+
+        @Param({"false", "true"})
+        boolean workStealing;
+
+        AntColonyOptimization aco;
+
+        abstract boolean separatePhases();
+
+        @Setup(Level.Trial)
+        public void startWorkers() {
+            aco = new AntColonyOptimization(cities, 20, 100);
+            aco.setNumberOfAnts(Math.max(1, (int) Math.round(cities * antFactor)));
+            aco.setThreads(threads);
+            aco.setWorkStealing(workStealing);
+            aco.separatePhases(separatePhases());
+            aco.initializeTrails();
+            aco.startWorkers();
+            aco.iterate(); // every ant holds a tour from here on
+        }
+
+        @TearDown(Level.Trial)
+        public void stopWorkers() {
+            aco.stopWorkers();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BeforeTours extends Colony {
+        @Override
+        boolean separatePhases() {
+            return true;
+        }
+
+        @TearDown(Level.Invocation)
+        public void finishIteration() {
+            aco.awaitTrailUpdate();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class AfterTours extends Colony {
+        @Override
+        boolean separatePhases() {
+            return true;
+        }
+
+        @Setup(Level.Invocation)
+        public void buildTours() {
+            aco.constructTours();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BetweenPhases extends Colony {
+        @Override
+        boolean separatePhases() {
+            return true;
+        }
+
+        @Setup(Level.Invocation)
+        public void buildTours() {
+            aco.constructTours();
+        }
+
+        @TearDown(Level.Invocation)
+        public void finishIteration() {
+            aco.awaitTrailUpdate();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Overlapped extends Colony {
+        @Override
+        boolean separatePhases() {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public void constructTours(BeforeTours colony) {
+        colony.aco.constructTours();
+    }
+
+    // Evaporation, deposit and choiceInfo refresh on the workers' row blocks
+    @Benchmark
+    public void updateTrails(AfterTours colony) {
+        colony.aco.awaitTrailUpdate();
+    }
+
+    @Benchmark
+    public void updateBest(BetweenPhases colony) {
+        colony.aco.updateBest();
+    }
+
+    @Benchmark
+    public void iteration(Overlapped colony) {
+        colony.aco.iterate();
+    }
+}
@@ -0,0 +1,59 @@
+package Selection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One roulette draw over a gathered row of unnormalized weights: prefix sums and a binary search against
+// the normalization pass and cumulative scan they replaced (linearScan reproduces the old selectNextCity)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"--enable-preview", "--add-modules=jdk.incubator.vector"})
+public class RouletteBenchmark {
+
+    @State(Scope.Thread)
+    public static class Row {
+        // unvisited cities at the step being timed
+        @Param({"10", "100", "1000", "10000"})
+        int count;
+
+        double[] gathered; // what gatherRow would write, tau^alpha * eta^beta spread over decades
+        double[] weights;
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            random = new SplittableRandom(42);
+            gathered = new double[count];
+            for (int k = 0; k < count; k++)
+                gathered[k] = Math.pow(random.nextDouble(1.0, 100.0), -5);
+            weights = new double[count];
+        }
+    }
+
+    @Benchmark
+    public int binarySearch(Row row) {
+        System.arraycopy(row.gathered, 0, row.weights, 0, row.count);
+        Roulette.prefixSums(row.weights, row.count);
+        return Roulette.select(row.weights, row.count, row.random.nextDouble());
+    }
+
+    @Benchmark
+    public int linearScan(Row row) {
+        double[] weights = row.weights;
+        int count = row.count;
+        System.arraycopy(row.gathered, 0, weights, 0, count);
+        double pheromone = 0.0;
+        for (int k = 0; k < count; k++) pheromone += weights[k];
+        for (int k = 0; k < count; k++) weights[k] /= pheromone;
+        double r = row.random.nextDouble(), total = 0.0;
+        for (int k = 0; k < count; k++) {
+            total += weights[k];
+            if (total >= r) return k;
+        }
+        return count - 1;
+    }
+}
@@ -0,0 +1,145 @@
+package Sequential;
+
+import Instance.CoordinateInstance;
+import Matrix.DistanceMatrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Ant bookkeeping at 1k and 10k cities: the long[] bitset of unvisited cities against the boolean[]
+// visited array it replaced (the *Booleans benchmarks reproduce the old loops)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"--enable-preview", "--add-modules=jdk.incubator.vector"})
+public class AntBenchmark {
+
+    @State(Scope.Thread)
+    public static class Tour {
+        @Param({"1000", "10000"})
+        int cities;
+
+        // share of the cities still unvisited, 1 is the last steps of a tour
+        @Param({"100", "10", "1"})
+        int unvisitedPercent;
+
+        DistanceMatrix graph;
+        int[] order;
+        Ant ant;            // order[0 .. visitedCount) on its trail
+        boolean[] visited;  // the same state as the old boolean[]
+        int[] buffer;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            graph = randomInstance(cities);
+            order = shuffledCities(cities);
+            int visitedCount = Math.max(1, cities - cities * unvisitedPercent / 100);
+            ant = new Ant(cities);
+            visited = new boolean[cities];
+            ant.setFirstCity(order[0]);
+            visited[order[0]] = true;
+            for (int k = 1; k < visitedCount; k++) {
+                ant.visitCity(order[k], graph);
+                visited[order[k]] = true;
+            }
+            buffer = new int[cities];
+        }
+    }
+
+    @Benchmark
+    public int unvisitedScan(Tour tour) {
+        return tour.ant.unvisitedCities(tour.buffer);
+    }
+
+    @Benchmark
+    public int unvisitedScanBooleans(Tour tour) {
+        int count = 0;
+        for (int i = 0; i < tour.cities; i++)
+            if (!tour.visited[i]) tour.buffer[count++] = i;
+        return count;
+    }
+
+    @Benchmark
+    public int visitedTests(Tour tour) {
+        int count = 0;
+        for (int city : tour.order)
+            if (tour.ant.visited(city)) count++;
+        return count;
+    }
+
+    @Benchmark
+    public int visitedTestsBooleans(Tour tour) {
+        int count = 0;
+        for (int city : tour.order)
+            if (tour.visited[city]) count++;
+        return count;
+    }
+
+    @State(Scope.Thread)
+    public static class FreshAnt {
+        @Param({"1000", "10000"})
+        int cities;
+
+        DistanceMatrix graph;
+        int[] order;
+        Ant ant;
+        boolean[] visited;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            graph = randomInstance(cities);
+            order = shuffledCities(cities);
+            ant = new Ant(cities);
+            visited = new boolean[cities];
+        }
+    }
+
+    private static DistanceMatrix randomInstance(int cities) {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] x = new double[cities], y = new double[cities];
+        for (int i = 0; i < cities; i++) {
+            x[i] = random.nextDouble(10_000);
+            y[i] = random.nextDouble(10_000);
+        }
+        return new CoordinateInstance(x, y);
+    }
+
+    private static int[] shuffledCities(int cities) {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] order = new int[cities];
+        for (int i = 0; i < cities; i++) order[i] = i;
+        for (int i = cities - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1), swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    @Benchmark
+    public long[] clear(FreshAnt fresh) {
+        fresh.ant.clear();
+        return fresh.ant.unvisited;
+    }
+
+    @Benchmark
+    public boolean[] clearBooleans(FreshAnt fresh) {
+        for (int i = 0; i < fresh.cities; i++)
+            fresh.visited[i] = false;
+        return fresh.visited;
+    }
+
+    // clear, then every city visited in a fixed random order, tour length included
+    @Benchmark
+    public int fullTour(FreshAnt fresh) {
+        Ant ant = fresh.ant;
+        int[] order = fresh.order;
+        ant.clear();
+        ant.setFirstCity(order[0]);
+        for (int k = 1; k < order.length; k++)
+            ant.visitCity(order[k], fresh.graph);
+        return ant.getTourLength();
+    }
+}
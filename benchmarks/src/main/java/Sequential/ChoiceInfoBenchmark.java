@@ -0,0 +1,117 @@
+package Sequential;
+
+import Instance.RandomInstance;
+import Matrix.DistanceMatrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Probability pass of one tour with Math.pow per candidate (powPerCandidate reproduces the old loop)
+// against reading the choice-info table, the table's rebuild once per iteration, and one tour of the
+// engine itself. An iteration of a colony with one ant per city costs cities tours plus one rebuild.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"--enable-preview", "--add-modules=jdk.incubator.vector"})
+public class ChoiceInfoBenchmark {
+    private static final double ALPHA = 1, BETA = 5;
+
+    @State(Scope.Thread)
+    public static class Colony {
+        @Param({"100", "200", "500", "1000"})
+        int cities;
+
+        int[][] graph;
+        double[][] trails;
+        double[][] heuristic;
+        double[][] choiceInfo;
+        double[] probabilities;
+        boolean[] visited;
+        AntColonyOptimization aco; // a single ant, so constructTours is one tour
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            DistanceMatrix distances = RandomInstance.generate(cities, 20, 100, false, random);
+            graph = new int[cities][cities];
+            trails = new double[cities][cities];
+            heuristic = new double[cities][cities];
+            choiceInfo = new double[cities][cities];
+            for (int i = 0; i < cities; i++) {
+                for (int j = 0; j < cities; j++) {
+                    graph[i][j] = distances.get(i, j);
+                    trails[i][j] = 0.5 + random.nextDouble();
+                    if (i != j) heuristic[i][j] = Math.pow(1.0 / graph[i][j], BETA);
+                }
+            }
+            rebuild(this);
+            probabilities = new double[cities];
+            visited = new boolean[cities];
+
+            aco = new AntColonyOptimization(distances);
+            aco.setNumberOfAnts(1);
+            aco.initializeTrails();
+        }
+    }
+
+    @Benchmark
+    public double powPerCandidate(Colony colony) {
+        return probabilityPass(colony, false);
+    }
+
+    @Benchmark
+    public double choiceInfoLookup(Colony colony) {
+        return probabilityPass(colony, true);
+    }
+
+    @Benchmark
+    public double[][] choiceInfoRebuild(Colony colony) {
+        return rebuild(colony);
+    }
+
+    @Benchmark
+    public boolean engineTour(Colony colony) {
+        return colony.aco.constructTours();
+    }
+
+    private static double[][] rebuild(Colony colony) {
+        for (int i = 0; i < colony.cities; i++)
+            for (int j = 0; j < colony.cities; j++)
+                colony.choiceInfo[i][j] = Math.pow(colony.trails[i][j], ALPHA) * colony.heuristic[i][j];
+        return colony.choiceInfo;
+    }
+
+    // One tour city 0 -> 1 -> ..., normalizing the probability vector over the unvisited cities at every step
+    private static double probabilityPass(Colony colony, boolean table) {
+        int n = colony.cities;
+        int[][] graph = colony.graph;
+        double[][] trails = colony.trails, choiceInfo = colony.choiceInfo;
+        double[] probabilities = colony.probabilities;
+        boolean[] visited = colony.visited;
+        Arrays.fill(visited, false);
+        double sink = 0;
+        for (int current = 0; current < n - 1; current++) {
+            visited[current] = true;
+            double pheromone = 0.0;
+            for (int j = 0; j < n; j++) {
+                if (visited[j]) continue;
+                pheromone += table ? choiceInfo[current][j]
+                        : Math.pow(trails[current][j], ALPHA) * Math.pow(1.0 / graph[current][j], BETA);
+            }
+            for (int j = 0; j < n; j++) {
+                if (visited[j]) {
+                    probabilities[j] = 0.0;
+                } else {
+                    double numerator = table ? choiceInfo[current][j]
+                            : Math.pow(trails[current][j], ALPHA) * Math.pow(1.0 / graph[current][j], BETA);
+                    probabilities[j] = numerator / pheromone;
+                }
+            }
+            sink += probabilities[current + 1];
+        }
+        return sink;
+    }
+}
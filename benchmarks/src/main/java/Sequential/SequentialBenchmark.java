@@ -0,0 +1,53 @@
+package Sequential;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Solver phases of the sequential engine, each timed on its own, plus a full iteration
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"--enable-preview", "--add-modules=jdk.incubator.vector"})
+public class SequentialBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Colony {
+        @Param({"100", "200", "500"})
+        int cities;
+
+        @Param({"0.5", "1.0"})
+        double antFactor; // ants per city
+
+        AntColonyOptimization aco;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            aco = new AntColonyOptimization(cities, 20, 100);
+            aco.setNumberOfAnts(Math.max(1, (int) Math.round(cities * antFactor)));
+            aco.initializeTrails();
+            aco.iterate(); // every ant holds a tour from here on
+        }
+    }
+
+    @Benchmark
+    public void constructTours(Colony colony) {
+        colony.aco.constructTours();
+    }
+
+    @Benchmark
+    public void updateTrails(Colony colony) {
+        colony.aco.updateTrails();
+    }
+
+    @Benchmark
+    public void updateBest(Colony colony) {
+        colony.aco.updateBest();
+    }
+
+    @Benchmark
+    public void iteration(Colony colony) {
+        colony.aco.iterate();
+    }
+}
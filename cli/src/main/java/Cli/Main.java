@@ -0,0 +1,185 @@
+package Cli;
+
+import Instance.RandomInstance;
+import Instance.TsplibReader;
+import Matrix.DistanceMatrix;
+import Parallel.AntColonyOptimization;
+import Parallel.ParallelSolver;
+import Search.LocalSearch;
+import Solver.Parameters;
+import Solver.PhaseTimes;
+import Solver.Result;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Command-line front end of the parallel engine, a client of Parallel.ParallelSolver. Without --quiet it
+// prints the best tour, with --print-matrix also the distance matrix (O(n^2), for small instances only);
+// either way the last line is the machine-readable result line.
+public class Main {
+    private static final String USAGE = """
+            usage: aco [options] [instance.tsp | number of random cities]   (default: 100 random cities)
+              --alpha A           pheromone importance (1)
+              --beta B            distance importance (5)
+              --evaporation E     share of pheromone kept per iteration (0.5)
+              --q Q               pheromone deposited per ant, divided by its tour length (500)
+              --random-factor R   probability of a uniformly random move (0.1)
+              --iterations N      iterations per attempt (200)
+              --attempts N        independent attempts (20)
+              --threads N         worker threads (all cores)
+              --work-stealing     schedule tours and trail rows as fork/join tasks that idle threads steal,
+                                  instead of a fixed range per thread
+              --islands           run the attempts concurrently as independent colonies, one thread each
+              --migration N       with --islands, pass each island's best tour on every N iterations (0 = off)
+              --candidates K      restrict moves to the K nearest cities, 0 = off (0)
+              --max-min           MAX-MIN Ant System: best-ant deposit, bounded trails, restarts on stagnation
+                                  and an early stop; evaporation defaults to 0.9 and random factor to 0
+              --local-search L    improve every ant's tour before the trail update: 2-opt, 2-opt+or-opt or
+                                  none; 2-opt skips asymmetric instances, Or-opt covers them (none)
+              --time-limit MS     stop after MS milliseconds with the best tour so far (off)
+              --target L          stop once a tour of length L or shorter is found (off)
+              --stall K           stop after K iterations in a row without a better tour (off)
+              --seed S            seed of the random instance and of the solver (random)
+              --print-matrix      print the distance matrix before solving, n^2 numbers (off)
+              --quiet             print only the result line
+            result line: result instance=.. cities=.. length=.. seed=.. threads=.. total_ms=..
+                         construct_ms=.. update_best_ms=.. trail_update_ms=.. termination=..
+                         (construct_ms includes the local search; with --islands the phase
+                         times are summed over the islands and can exceed total_ms; termination
+                         is completed, time_limit, target_length or stalled)""";
+
+    public static void main(String[] args) throws IOException {
+        String instance = "100";
+        Double alpha = null, beta = null, evaporation = null, q = null, randomFactor = null;
+        Integer iterations = null, attempts = null, candidates = null, stall = null;
+        Long timeLimit = null;
+        Double target = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = ThreadLocalRandom.current().nextLong();
+        boolean quiet = false, printMatrix = false, islands = false, maxMin = false, workStealing = false;
+        int migration = 0;
+        LocalSearch.Factory localSearch = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--alpha" -> alpha = Double.parseDouble(value(args, ++i, arg));
+                    case "--beta" -> beta = Double.parseDouble(value(args, ++i, arg));
+                    case "--evaporation" -> evaporation = Double.parseDouble(value(args, ++i, arg));
+                    case "--q" -> q = Double.parseDouble(value(args, ++i, arg));
+                    case "--random-factor" -> randomFactor = Double.parseDouble(value(args, ++i, arg));
+                    case "--iterations" -> iterations = Integer.parseInt(value(args, ++i, arg));
+                    case "--attempts" -> attempts = Integer.parseInt(value(args, ++i, arg));
+                    case "--threads" -> threads = Integer.parseInt(value(args, ++i, arg));
+                    case "--candidates" -> candidates = Integer.parseInt(value(args, ++i, arg));
+                    case "--time-limit" -> timeLimit = Long.parseLong(value(args, ++i, arg));
+                    case "--target" -> target = Double.parseDouble(value(args, ++i, arg));
+                    case "--stall" -> stall = Integer.parseInt(value(args, ++i, arg));
+                    case "--seed" -> seed = Long.parseLong(value(args, ++i, arg));
+                    case "--work-stealing" -> workStealing = true;
+                    case "--islands" -> islands = true;
+                    case "--migration" -> migration = Integer.parseInt(value(args, ++i, arg));
+                    case "--max-min" -> maxMin = true;
+                    case "--local-search" -> localSearch = localSearch(value(args, ++i, arg));
+                    case "--print-matrix" -> printMatrix = true;
+                    case "--quiet" -> quiet = true;
+                    case "--help", "-h" -> {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    default -> {
+                        if (arg.startsWith("-")) throw new IllegalArgumentException("unknown option " + arg);
+                        instance = arg;
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("aco: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        String name;
+        DistanceMatrix graph;
+        if (instance.chars().allMatch(Character::isDigit)) {
+            name = "random-" + instance;
+            graph = RandomInstance.generate(Integer.parseInt(instance), 20, 100, false, new Random(seed));
+        } else {
+            Path file = Path.of(instance);
+            if (!Files.isRegularFile(file)) {
+                System.err.println("aco: no such instance file " + instance);
+                System.exit(2);
+            }
+            TsplibReader reader = new TsplibReader();
+            graph = reader.parse(file);
+            name = reader.name().isEmpty() ? file.getFileName().toString() : reader.name();
+        }
+
+        Parameters.Builder parameters = Parameters.builder();
+        if (maxMin) {
+            parameters.maxMin(true);
+            if (evaporation == null) evaporation = 0.9;
+            if (randomFactor == null) randomFactor = 0.0;
+        }
+        if (alpha != null) parameters.alpha(alpha);
+        if (beta != null) parameters.beta(beta);
+        if (evaporation != null) parameters.evaporation(evaporation);
+        if (q != null) parameters.q(q);
+        if (randomFactor != null) parameters.randomFactor(randomFactor);
+        if (iterations != null) parameters.maxIterations(iterations);
+        if (attempts != null) parameters.attempts(attempts);
+        if (candidates != null) parameters.candidateListSize(candidates);
+        if (timeLimit != null) parameters.timeLimit(Duration.ofMillis(timeLimit));
+        if (target != null) parameters.targetLength(target);
+        if (stall != null) parameters.stallIterations(stall);
+        parameters.localSearch(localSearch)
+                .threads(threads)
+                .workStealing(workStealing)
+                .islandMode(islands)
+                .migrationInterval(migration)
+                .seed(seed);
+        ParallelSolver solver;
+        try {
+            solver = new ParallelSolver(parameters.build());
+        } catch (IllegalArgumentException e) {
+            System.err.println("aco: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (printMatrix && !quiet) AntColonyOptimization.prettyPrint(graph);
+
+        Result result = solver.solve(graph);
+        if (!quiet) {
+            System.out.println("Best tour length: " + result.bestLength());
+            System.out.println("Best tour order: " + Arrays.toString(result.bestTour()));
+        }
+
+        PhaseTimes phases = result.phaseTimes();
+        System.out.printf("result instance=%s cities=%d length=%.0f seed=%d threads=%d total_ms=%.1f"
+                        + " construct_ms=%.1f update_best_ms=%.1f trail_update_ms=%.1f termination=%s%n",
+                name, graph.size(), result.bestLength(), seed, threads, result.elapsedNanos() / 1e6,
+                phases.constructToursNanos() / 1e6, phases.updateBestNanos() / 1e6, phases.trailUpdateNanos() / 1e6,
+                result.termination().name().toLowerCase(Locale.ROOT));
+    }
+
+    private static LocalSearch.Factory localSearch(String name) {
+        return switch (name) {
+            case "2-opt" -> LocalSearch.twoOpt();
+            case "2-opt+or-opt" -> LocalSearch.twoOptOrOpt();
+            case "none" -> null;
+            default -> throw new IllegalArgumentException("unknown local search " + name);
+        };
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) throw new IllegalArgumentException(option + " needs a value");
+        return args[index];
+    }
+}
@@ -0,0 +1,141 @@
+package Instance;
+
+import Matrix.DistanceMatrix;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Cities given by 2D or 3D coordinates. Distances follow one of the TSPLIB coordinate metrics (Euclidean
+// rounded to the nearest integer by default) and are computed on demand, so the instance itself takes O(n)
+// memory instead of O(n^2). The solvers still keep n^2 / 2 pheromone and choice-information entries; they
+// only skip their cached eta^beta matrix (see DistanceMatrix.isMaterialized).
+public final class CoordinateInstance implements DistanceMatrix {
+    public enum Metric {
+        EUCLIDEAN,      // EUC_2D, EUC_3D
+        CEIL_EUCLIDEAN, // CEIL_2D
+        PSEUDO_EUCLIDEAN, // ATT
+        GEOGRAPHICAL    // GEO, coordinates as DDD.MM latitude/longitude
+    }
+
+    private final Metric metric;
+    private final int size;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z; // null for 2D instances
+
+    public CoordinateInstance(double[] x, double[] y, double[] z) {
+        this(Metric.EUCLIDEAN, x, y, z);
+    }
+
+    public CoordinateInstance(Metric metric, double[] x, double[] y, double[] z) {
+        if (x.length != y.length || (z != null && z.length != x.length))
+            throw new IllegalArgumentException("Coordinate arrays differ in length");
+        if (z != null && metric != Metric.EUCLIDEAN)
+            throw new IllegalArgumentException(metric + " distances are only defined in 2D");
+        this.metric = metric;
+        this.size = x.length;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public CoordinateInstance(double[] x, double[] y) {
+        this(x, y, null);
+    }
+
+    // One city per line as "x y" or "x y z"; blank lines and lines starting with '#' are skipped
+    public static CoordinateInstance load(Path file) throws IOException {
+        List<double[]> points = new ArrayList<>();
+        int dimension = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] fields = line.split("\\s+");
+                if (dimension == 0) dimension = fields.length;
+                if (fields.length != dimension || dimension < 2 || dimension > 3)
+                    throw new IOException(file + ":" + lineNumber + ": expected " + (dimension == 0 ? "2 or 3" : dimension) + " coordinates");
+                double[] point = new double[dimension];
+                try {
+                    for (int d = 0; d < dimension; d++) point[d] = Double.parseDouble(fields[d]);
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+                points.add(point);
+            }
+        }
+
+        int n = points.size();
+        double[] x = new double[n], y = new double[n], z = dimension == 3 ? new double[n] : null;
+        for (int i = 0; i < n; i++) {
+            double[] point = points.get(i);
+            x[i] = point[0];
+            y[i] = point[1];
+            if (z != null) z[i] = point[2];
+        }
+        return new CoordinateInstance(x, y, z);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        return distance(i, j);
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+
+    @Override
+    public boolean isMaterialized() {
+        return false;
+    }
+
+    // Rounding rules as specified by TSPLIB for each metric
+    private int distance(int i, int j) {
+        if (metric == Metric.GEOGRAPHICAL) return geographicalDistance(i, j);
+        double dx = x[i] - x[j], dy = y[i] - y[j];
+        double squared = dx * dx + dy * dy;
+        if (z != null) {
+            double dz = z[i] - z[j];
+            squared += dz * dz;
+        }
+        return switch (metric) {
+            case EUCLIDEAN -> (int) (Math.sqrt(squared) + 0.5);
+            case CEIL_EUCLIDEAN -> (int) Math.ceil(Math.sqrt(squared));
+            case PSEUDO_EUCLIDEAN -> {
+                double r = Math.sqrt(squared / 10.0);
+                int t = (int) (r + 0.5);
+                yield t < r ? t + 1 : t;
+            }
+            case GEOGRAPHICAL -> throw new AssertionError();
+        };
+    }
+
+    private int geographicalDistance(int i, int j) {
+        double latitudeI = radians(x[i]), longitudeI = radians(y[i]);
+        double latitudeJ = radians(x[j]), longitudeJ = radians(y[j]);
+        double q1 = Math.cos(longitudeI - longitudeJ);
+        double q2 = Math.cos(latitudeI - latitudeJ);
+        double q3 = Math.cos(latitudeI + latitudeJ);
+        return (int) (6378.388 * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+    }
+
+    private static double radians(double degreesMinutes) {
+        int degrees = (int) degreesMinutes;
+        double minutes = degreesMinutes - degrees;
+        return 3.141592 * (degrees + 5.0 * minutes / 3.0) / 180.0;
+    }
+}
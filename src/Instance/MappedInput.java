@@ -0,0 +1,178 @@
+package Instance;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Forward-only byte cursor over a memory-mapped file. Files larger than one mapping are walked through
+// consecutive windows, so tokens may straddle a window boundary. Numbers are parsed straight from the
+// mapped bytes; only header keywords and values become Strings.
+final class MappedInput implements AutoCloseable {
+    static final int EOF = -1;
+    private static final long WINDOW = 1L << 28;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long size;
+    private long windowStart;
+    private MappedByteBuffer window;
+    private int line = 1;
+
+    MappedInput(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        map(0);
+    }
+
+    long size() {
+        return size;
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, size - start));
+    }
+
+    int peek() throws IOException {
+        if (!window.hasRemaining()) {
+            long next = windowStart + window.limit();
+            if (next >= size) return EOF;
+            map(next);
+        }
+        return window.get(window.position()) & 0xFF;
+    }
+
+    int next() throws IOException {
+        int c = peek();
+        if (c != EOF) {
+            window.position(window.position() + 1);
+            if (c == '\n') line++;
+        }
+        return c;
+    }
+
+    // Spaces and tabs only, the cursor stays on the current line
+    void skipBlanks() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t' || c == '\r') next();
+    }
+
+    void skipWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t' || c == '\r' || c == '\n') next();
+    }
+
+    void skipLine() throws IOException {
+        int c;
+        while ((c = next()) != EOF && c != '\n') ;
+    }
+
+    // Letters, digits and underscores, e.g. a header keyword; empty when the cursor is not on one
+    String word() throws IOException {
+        StringBuilder word = new StringBuilder();
+        int c;
+        while ((c = peek()) == '_' || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9'))
+            word.append((char) next());
+        return word.toString();
+    }
+
+    String restOfLine() throws IOException {
+        StringBuilder rest = new StringBuilder();
+        int c;
+        while ((c = next()) != EOF && c != '\n') rest.append((char) c);
+        return rest.toString().strip();
+    }
+
+    // Decimal number with optional sign, fraction and exponent, preceded by any whitespace.
+    // Up to 18 significant digits are exact before scaling; Double.parseDouble is not involved.
+    double number() throws IOException {
+        skipWhitespace();
+        boolean negative = false;
+        int c = peek();
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            next();
+        }
+        long mantissa = 0;
+        int digits = 0, exponent = 0;
+        boolean any = false;
+        while ((c = peek()) >= '0' && c <= '9') {
+            next();
+            any = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) digits++;
+            } else exponent++;
+        }
+        if (c == '.') {
+            next();
+            while ((c = peek()) >= '0' && c <= '9') {
+                next();
+                any = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) digits++;
+                    exponent--;
+                }
+            }
+        }
+        if (!any) throw error("expected a number");
+        if (c == 'e' || c == 'E') {
+            next();
+            boolean negativeExponent = false;
+            c = peek();
+            if (c == '-' || c == '+') {
+                negativeExponent = c == '-';
+                next();
+            }
+            int value = 0;
+            boolean exponentDigits = false;
+            while ((c = peek()) >= '0' && c <= '9') {
+                next();
+                exponentDigits = true;
+                if (value < 10_000) value = value * 10 + (c - '0');
+            }
+            if (!exponentDigits) throw error("malformed exponent");
+            exponent += negativeExponent ? -value : value;
+        }
+        double result = scale(mantissa, exponent);
+        return negative ? -result : result;
+    }
+
+    // Whole number, the form every EDGE_WEIGHT_SECTION uses
+    int integer() throws IOException {
+        double value = number();
+        if (value != Math.rint(value) || Math.abs(value) > Integer.MAX_VALUE)
+            throw error("expected an integer, found " + value);
+        return (int) value;
+    }
+
+    private static double scale(long mantissa, int exponent) {
+        if (exponent == 0 || mantissa == 0) return mantissa;
+        // exact when the mantissa fits in 53 bits and the power of ten is itself exact
+        if (mantissa < (1L << 53)) {
+            if (exponent > 0 && exponent < POWERS_OF_TEN.length) return mantissa * POWERS_OF_TEN[exponent];
+            if (exponent < 0 && -exponent < POWERS_OF_TEN.length) return mantissa / POWERS_OF_TEN[-exponent];
+        }
+        return mantissa * Math.pow(10.0, exponent);
+    }
+
+    IOException error(String message) {
+        return new IOException(file + ":" + line + ": " + message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,32 @@
+package Instance;
+
+import Matrix.DistanceMatrix;
+import Matrix.IntDistanceMatrix;
+import Matrix.TriangularDistanceMatrix;
+
+import java.util.Random;
+
+// Complete graph with uniform random distances in [minDistance, maxDistance], the solvers' built-in instance
+public final class RandomInstance {
+    private RandomInstance() {
+    }
+
+    public static DistanceMatrix generate(int numberOfCities, int minDistance, int maxDistance, boolean symmetric, Random random) {
+        if (symmetric) {
+            TriangularDistanceMatrix randomCity = new TriangularDistanceMatrix(numberOfCities);
+            for (int i = 0; i < numberOfCities; i++)
+                for (int j = i + 1; j < numberOfCities; j++)
+                    randomCity.set(i, j, random.nextInt(maxDistance - minDistance + 1) + minDistance);
+            return randomCity;
+        }
+        IntDistanceMatrix randomCity = new IntDistanceMatrix(numberOfCities);
+
+        for (int i = 0; i < numberOfCities; i++) {
+            for (int j = 0; j < numberOfCities; j++) {
+                if (i == j) randomCity.set(i, j, 0);
+                else randomCity.set(i, j, random.nextInt(maxDistance - minDistance + 1) + minDistance);
+            }
+        }
+        return randomCity;
+    }
+}
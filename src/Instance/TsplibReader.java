@@ -0,0 +1,194 @@
+package Instance;
+
+import Matrix.DistanceMatrix;
+import Matrix.IntDistanceMatrix;
+import Matrix.TriangularDistanceMatrix;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+// TSPLIB (.tsp / .atsp) reader for TYPE TSP and ATSP. Coordinate instances (EUC_2D, EUC_3D, CEIL_2D, ATT,
+// GEO) become a lazy CoordinateInstance, EXPLICIT ones a packed TriangularDistanceMatrix, except an ATSP
+// FULL_MATRIX, which stays a square IntDistanceMatrix. A TSP FULL_MATRIX must be symmetric; without a
+// TYPE, a FULL_MATRIX is packed only if it is. The result goes straight into new AntColonyOptimization(graph).
+public final class TsplibReader {
+    private final Map<String, String> header = new HashMap<>();
+    private long bytes;
+    private long elapsedNanos;
+
+    public static DistanceMatrix read(Path file) throws IOException {
+        return new TsplibReader().parse(file);
+    }
+
+    public DistanceMatrix parse(Path file) throws IOException {
+        long start = System.nanoTime();
+        header.clear();
+        DistanceMatrix graph = null;
+        try (MappedInput in = new MappedInput(file)) {
+            bytes = in.size();
+            while (true) {
+                in.skipWhitespace();
+                if (in.peek() == MappedInput.EOF) break;
+                String keyword = in.word();
+                if (keyword.isEmpty()) throw in.error("expected a keyword");
+                in.skipBlanks();
+                if (in.peek() == ':') in.next();
+                in.skipBlanks();
+
+                switch (keyword) {
+                    case "EOF" -> {
+                        elapsedNanos = System.nanoTime() - start;
+                        return result(in, graph);
+                    }
+                    case "NODE_COORD_SECTION" -> graph = readCoordinates(in);
+                    case "EDGE_WEIGHT_SECTION" -> graph = readWeights(in);
+                    default -> {
+                        if (keyword.endsWith("_SECTION")) skipSection(in);
+                        else header.put(keyword, in.restOfLine());
+                    }
+                }
+            }
+            elapsedNanos = System.nanoTime() - start;
+            return result(in, graph);
+        }
+    }
+
+    public String name() {
+        return header.getOrDefault("NAME", "");
+    }
+
+    public long bytesRead() {
+        return bytes;
+    }
+
+    public double megabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytes / 1e6 / (elapsedNanos / 1e9);
+    }
+
+    private DistanceMatrix result(MappedInput in, DistanceMatrix graph) throws IOException {
+        if (graph == null) throw in.error("no NODE_COORD_SECTION or EDGE_WEIGHT_SECTION");
+        return graph;
+    }
+
+    private int dimension(MappedInput in) throws IOException {
+        String value = header.get("DIMENSION");
+        if (value == null) throw in.error("DIMENSION must precede the data section");
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw in.error("bad DIMENSION " + value);
+        }
+    }
+
+    // TSP, ATSP or null when the header has no TYPE; the other TSPLIB problems are not tours of a matrix
+    private String problemType(MappedInput in) throws IOException {
+        String type = header.get("TYPE");
+        if (type == null || type.equals("TSP") || type.equals("ATSP")) return type;
+        throw in.error("unsupported TYPE " + type);
+    }
+
+    private DistanceMatrix readCoordinates(MappedInput in) throws IOException {
+        problemType(in);
+        String type = header.getOrDefault("EDGE_WEIGHT_TYPE", "EUC_2D");
+        CoordinateInstance.Metric metric = switch (type) {
+            case "EUC_2D", "EUC_3D" -> CoordinateInstance.Metric.EUCLIDEAN;
+            case "CEIL_2D" -> CoordinateInstance.Metric.CEIL_EUCLIDEAN;
+            case "ATT" -> CoordinateInstance.Metric.PSEUDO_EUCLIDEAN;
+            case "GEO" -> CoordinateInstance.Metric.GEOGRAPHICAL;
+            default -> throw in.error("unsupported EDGE_WEIGHT_TYPE " + type);
+        };
+        boolean threeD = type.equals("EUC_3D") || "THREED_COORDS".equals(header.get("NODE_COORD_TYPE"));
+        int n = dimension(in);
+        double[] x = new double[n], y = new double[n], z = threeD ? new double[n] : null;
+        boolean[] seen = new boolean[n];
+        for (int k = 0; k < n; k++) {
+            int node = in.integer() - 1;
+            if (node < 0 || node >= n || seen[node]) throw in.error("bad or repeated node " + (node + 1));
+            seen[node] = true;
+            x[node] = in.number();
+            y[node] = in.number();
+            if (threeD) z[node] = in.number();
+        }
+        return new CoordinateInstance(metric, x, y, z);
+    }
+
+    private DistanceMatrix readWeights(MappedInput in) throws IOException {
+        String type = header.get("EDGE_WEIGHT_TYPE");
+        if (type != null && !type.equals("EXPLICIT")) throw in.error("EDGE_WEIGHT_SECTION needs EDGE_WEIGHT_TYPE EXPLICIT");
+        String problem = problemType(in);
+        String format = header.getOrDefault("EDGE_WEIGHT_FORMAT", "FULL_MATRIX");
+        int n = dimension(in);
+        if (format.equals("FULL_MATRIX")) return readFullMatrix(in, n, problem);
+        if ("ATSP".equals(problem)) throw in.error("ATSP needs EDGE_WEIGHT_FORMAT FULL_MATRIX, not " + format);
+
+        // a column-wise triangle of a symmetric matrix is the opposite row-wise triangle
+        TriangularDistanceMatrix graph = new TriangularDistanceMatrix(n);
+        switch (format) {
+            case "UPPER_ROW", "LOWER_COL" -> {
+                for (int i = 0; i < n; i++)
+                    for (int j = i + 1; j < n; j++) graph.set(i, j, in.integer());
+            }
+            case "UPPER_DIAG_ROW", "LOWER_DIAG_COL" -> {
+                for (int i = 0; i < n; i++)
+                    for (int j = i; j < n; j++) graph.set(i, j, in.integer());
+            }
+            case "LOWER_ROW", "UPPER_COL" -> {
+                for (int i = 0; i < n; i++)
+                    for (int j = 0; j < i; j++) graph.set(i, j, in.integer());
+            }
+            case "LOWER_DIAG_ROW", "UPPER_DIAG_COL" -> {
+                for (int i = 0; i < n; i++)
+                    for (int j = 0; j <= i; j++) graph.set(i, j, in.integer());
+            }
+            default -> throw in.error("unsupported EDGE_WEIGHT_FORMAT " + format);
+        }
+        return graph;
+    }
+
+    // ATSP: square. TSP: packed, every weight below the diagonal checked against its mirror. No TYPE:
+    // read square, then packed if it turns out symmetric.
+    private static DistanceMatrix readFullMatrix(MappedInput in, int n, String problem) throws IOException {
+        if ("TSP".equals(problem)) {
+            TriangularDistanceMatrix graph = new TriangularDistanceMatrix(n);
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++) {
+                    int weight = in.integer();
+                    if (j >= i) graph.set(i, j, weight);
+                    else if (graph.get(i, j) != weight)
+                        throw in.error("TYPE TSP but the weight of " + (i + 1) + "-" + (j + 1) + " differs from "
+                                + (j + 1) + "-" + (i + 1));
+                }
+            return graph;
+        }
+
+        IntDistanceMatrix graph = new IntDistanceMatrix(n);
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                graph.set(i, j, in.integer());
+        if (problem != null || !isSymmetric(graph)) return graph;
+        TriangularDistanceMatrix packed = new TriangularDistanceMatrix(n);
+        for (int i = 0; i < n; i++)
+            for (int j = i; j < n; j++)
+                packed.set(i, j, graph.get(i, j));
+        return packed;
+    }
+
+    private static boolean isSymmetric(DistanceMatrix graph) {
+        for (int i = 0; i < graph.size(); i++)
+            for (int j = i + 1; j < graph.size(); j++)
+                if (graph.get(i, j) != graph.get(j, i)) return false;
+        return true;
+    }
+
+    // DISPLAY_DATA_SECTION, TOUR_SECTION, ...: everything up to the next line starting with a keyword
+    private static void skipSection(MappedInput in) throws IOException {
+        while (true) {
+            in.skipWhitespace();
+            int c = in.peek();
+            if (c == MappedInput.EOF || (c >= 'A' && c <= 'Z')) return;
+            in.skipLine();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package Matrix;
+
+// Distances between cities, indexed by city number
+public interface DistanceMatrix {
+    int size();
+
+    int get(int i, int j);
+
+    default boolean isSymmetric() {
+        return false;
+    }
+
+    // false when distances are computed on demand; solvers then skip the n^2 heuristic cache, though their
+    // pheromone and choice information stay n^2
+    default boolean isMaterialized() {
+        return true;
+    }
+}
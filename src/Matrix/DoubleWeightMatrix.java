@@ -0,0 +1,73 @@
+package Matrix;
+
+import java.util.Arrays;
+
+// size x size weights, row-major in a single double[]
+public final class DoubleWeightMatrix implements WeightMatrix {
+    private static final RowKernels KERNELS = RowKernels.PREFERRED;
+
+    private final int size;
+    private final double[] data;
+
+    public DoubleWeightMatrix(int size) {
+        this(size, new double[Flat.length(size)]);
+    }
+
+    private DoubleWeightMatrix(int size, double[] data) {
+        this.size = size;
+        this.data = data;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data[i * size + j];
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        data[i * size + j] = value;
+    }
+
+    @Override
+    public void add(int i, int j, double value) {
+        data[i * size + j] += value;
+    }
+
+    @Override
+    public void fill(double value) {
+        Arrays.fill(data, value);
+    }
+
+    @Override
+    public void scaleRow(int row, double factor) {
+        KERNELS.scale(data, row * size, row * size + size, factor);
+    }
+
+    @Override
+    public void clampRow(int row, double min, double max) {
+        KERNELS.clamp(data, row * size, row * size + size, min, max);
+    }
+
+    @Override
+    public double gatherRow(int row, int[] columns, int count, double[] out) {
+        return KERNELS.gather(data, row * size, columns, count, out);
+    }
+
+    @Override
+    public void powerProductRow(int row, WeightMatrix base, double exponent, WeightMatrix factor) {
+        if (base instanceof DoubleWeightMatrix b && factor instanceof DoubleWeightMatrix f)
+            KERNELS.powerProduct(b.data, f.data, data, row * size, row * size + size, exponent);
+        else
+            WeightMatrix.super.powerProductRow(row, base, exponent, factor);
+    }
+
+    @Override
+    public WeightMatrix copy() {
+        return new DoubleWeightMatrix(size, data.clone());
+    }
+}
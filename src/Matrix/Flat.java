@@ -0,0 +1,33 @@
+package Matrix;
+
+final class Flat {
+    private Flat() {
+    }
+
+    // Number of cells of a row-major size x size matrix, which must fit in one Java array
+    static int length(int size) {
+        long length = (long) size * size;
+        if (size < 0 || length > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Matrix of " + size + " cities does not fit in a single array");
+        return (int) length;
+    }
+
+    // Number of cells of the packed upper triangle, diagonal included
+    static int triangularLength(int size) {
+        long length = (long) size * (size + 1) / 2;
+        if (size < 0 || length > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Triangular matrix of " + size + " cities does not fit in a single array");
+        return (int) length;
+    }
+
+    // rowBase[i] + j is the packed index of cell (i, j) for i <= j
+    static int[] triangularRowBase(int size) {
+        int[] rowBase = new int[size];
+        int start = 0;
+        for (int i = 0; i < size; i++) {
+            rowBase[i] = start - i;
+            start += size - i;
+        }
+        return rowBase;
+    }
+}
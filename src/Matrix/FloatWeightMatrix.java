@@ -0,0 +1,73 @@
+package Matrix;
+
+import java.util.Arrays;
+
+// Single-precision variant of DoubleWeightMatrix, half the memory and bandwidth
+public final class FloatWeightMatrix implements WeightMatrix {
+    private final int size;
+    private final float[] data;
+
+    public FloatWeightMatrix(int size) {
+        this(size, new float[Flat.length(size)]);
+    }
+
+    private FloatWeightMatrix(int size, float[] data) {
+        this.size = size;
+        this.data = data;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data[i * size + j];
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        data[i * size + j] = (float) value;
+    }
+
+    @Override
+    public void add(int i, int j, double value) {
+        data[i * size + j] += (float) value;
+    }
+
+    @Override
+    public void fill(double value) {
+        Arrays.fill(data, (float) value);
+    }
+
+    @Override
+    public void scaleRow(int row, double factor) {
+        for (int k = row * size, end = k + size; k < end; k++)
+            data[k] *= (float) factor;
+    }
+
+    @Override
+    public void clampRow(int row, double min, double max) {
+        float low = (float) min, high = (float) max;
+        for (int k = row * size, end = k + size; k < end; k++)
+            data[k] = Math.min(Math.max(data[k], low), high);
+    }
+
+    @Override
+    public double gatherRow(int row, int[] columns, int count, double[] out) {
+        int base = row * size;
+        double sum = 0.0;
+        for (int k = 0; k < count; k++) {
+            double value = data[base + columns[k]];
+            out[k] = value;
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Override
+    public WeightMatrix copy() {
+        return new FloatWeightMatrix(size, data.clone());
+    }
+}
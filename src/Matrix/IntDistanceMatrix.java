@@ -0,0 +1,33 @@
+package Matrix;
+
+// size x size distances, row-major in a single int[]
+public final class IntDistanceMatrix implements DistanceMatrix {
+    private final int size;
+    private final int[] data;
+
+    public IntDistanceMatrix(int size) {
+        this.size = size;
+        this.data = new int[Flat.length(size)];
+    }
+
+    public static IntDistanceMatrix of(int[][] graph) {
+        IntDistanceMatrix matrix = new IntDistanceMatrix(graph.length);
+        for (int i = 0; i < graph.length; i++)
+            System.arraycopy(graph[i], 0, matrix.data, i * graph.length, graph.length);
+        return matrix;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        return data[i * size + j];
+    }
+
+    public void set(int i, int j, int value) {
+        data[i * size + j] = value;
+    }
+}
@@ -0,0 +1,42 @@
+package Matrix;
+
+// Elementwise kernels over contiguous runs of a double[] matrix: evaporation, the MMAS clamp, the gathered
+// row copy with its normalization sum, and the tau^alpha * eta^beta product of the choice information.
+// PREFERRED is the Vector API implementation when jdk.incubator.vector is in the boot layer
+// (--add-modules jdk.incubator.vector) and -Daco.simd=false is not set, the scalar one otherwise.
+public interface RowKernels {
+    RowKernels PREFERRED = preferred();
+
+    String name();
+
+    // data[from..to) *= factor
+    void scale(double[] data, int from, int to, double factor);
+
+    // data[from..to) clamped to [min, max]
+    void clamp(double[] data, int from, int to, double min, double max);
+
+    // out[k] = data[base + columns[k]] for k < count, returns the sum of out[0..count)
+    double gather(double[] data, int base, int[] columns, int count, double[] out);
+
+    // out[k] = base[k]^exponent * factor[k] for k in [from, to)
+    void powerProduct(double[] base, double[] factor, double[] out, int from, int to, double exponent);
+
+    static RowKernels scalar() {
+        return ScalarRowKernels.INSTANCE;
+    }
+
+    // null when the Vector API is not available in this JVM
+    static RowKernels vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            return (RowKernels) Class.forName("Matrix.VectorRowKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static RowKernels preferred() {
+        RowKernels vector = Boolean.parseBoolean(System.getProperty("aco.simd", "true")) ? vector() : null;
+        return vector != null ? vector : scalar();
+    }
+}
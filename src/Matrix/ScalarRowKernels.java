@@ -0,0 +1,47 @@
+package Matrix;
+
+final class ScalarRowKernels implements RowKernels {
+    static final ScalarRowKernels INSTANCE = new ScalarRowKernels();
+
+    private ScalarRowKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void scale(double[] data, int from, int to, double factor) {
+        for (int k = from; k < to; k++)
+            data[k] *= factor;
+    }
+
+    @Override
+    public void clamp(double[] data, int from, int to, double min, double max) {
+        for (int k = from; k < to; k++)
+            data[k] = Math.min(Math.max(data[k], min), max);
+    }
+
+    @Override
+    public double gather(double[] data, int base, int[] columns, int count, double[] out) {
+        double sum = 0.0;
+        for (int k = 0; k < count; k++) {
+            double value = data[base + columns[k]];
+            out[k] = value;
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Override
+    public void powerProduct(double[] base, double[] factor, double[] out, int from, int to, double exponent) {
+        if (exponent == 1.0) { // Math.pow(x, 1.0) == x, but the call is not folded by the JIT
+            for (int k = from; k < to; k++)
+                out[k] = base[k] * factor[k];
+            return;
+        }
+        for (int k = from; k < to; k++)
+            out[k] = Math.pow(base[k], exponent) * factor[k];
+    }
+}
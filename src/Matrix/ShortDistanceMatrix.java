@@ -0,0 +1,45 @@
+package Matrix;
+
+// Half-size variant of IntDistanceMatrix for distances up to Short.MAX_VALUE
+public final class ShortDistanceMatrix implements DistanceMatrix {
+    private final int size;
+    private final short[] data;
+
+    public ShortDistanceMatrix(int size) {
+        this.size = size;
+        this.data = new short[Flat.length(size)];
+    }
+
+    public static ShortDistanceMatrix of(DistanceMatrix distances) {
+        int n = distances.size();
+        ShortDistanceMatrix matrix = new ShortDistanceMatrix(n);
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                matrix.set(i, j, distances.get(i, j));
+        return matrix;
+    }
+
+    public static boolean fits(DistanceMatrix distances) {
+        int n = distances.size();
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                if (distances.get(i, j) < 0 || distances.get(i, j) > Short.MAX_VALUE) return false;
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        return data[i * size + j];
+    }
+
+    public void set(int i, int j, int value) {
+        if (value < 0 || value > Short.MAX_VALUE)
+            throw new IllegalArgumentException("Distance " + value + " does not fit in a short");
+        data[i * size + j] = (short) value;
+    }
+}
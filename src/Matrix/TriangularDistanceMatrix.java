@@ -0,0 +1,43 @@
+package Matrix;
+
+// Symmetric distances, upper triangle (diagonal included) packed row by row in a single int[]
+public final class TriangularDistanceMatrix implements DistanceMatrix {
+    private final int size;
+    private final int[] rowBase;
+    private final int[] data;
+
+    public TriangularDistanceMatrix(int size) {
+        this.size = size;
+        this.rowBase = Flat.triangularRowBase(size);
+        this.data = new int[Flat.triangularLength(size)];
+    }
+
+    // Symmetric instance built from the upper triangle of graph, the lower one is ignored
+    public static TriangularDistanceMatrix upperOf(int[][] graph) {
+        TriangularDistanceMatrix matrix = new TriangularDistanceMatrix(graph.length);
+        for (int i = 0; i < graph.length; i++)
+            for (int j = i; j < graph.length; j++)
+                matrix.set(i, j, graph[i][j]);
+        return matrix;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        return i <= j ? data[rowBase[i] + j] : data[rowBase[j] + i];
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+
+    public void set(int i, int j, int value) {
+        if (i <= j) data[rowBase[i] + j] = value;
+        else data[rowBase[j] + i] = value;
+    }
+}
@@ -0,0 +1,91 @@
+package Matrix;
+
+import java.util.Arrays;
+
+// Symmetric weights, upper triangle (diagonal included) packed row by row in a single double[].
+// Row operations cover the stored part of a row, columns row..size-1.
+public final class TriangularWeightMatrix implements WeightMatrix {
+    private static final RowKernels KERNELS = RowKernels.PREFERRED;
+
+    private final int size;
+    private final int[] rowBase;
+    private final double[] data;
+
+    public TriangularWeightMatrix(int size) {
+        this(size, Flat.triangularRowBase(size), new double[Flat.triangularLength(size)]);
+    }
+
+    private TriangularWeightMatrix(int size, int[] rowBase, double[] data) {
+        this.size = size;
+        this.rowBase = rowBase;
+        this.data = data;
+    }
+
+    private int index(int i, int j) {
+        return i <= j ? rowBase[i] + j : rowBase[j] + i;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int firstColumn(int row) {
+        return row;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data[index(i, j)];
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        data[index(i, j)] = value;
+    }
+
+    @Override
+    public void add(int i, int j, double value) {
+        data[index(i, j)] += value;
+    }
+
+    @Override
+    public void fill(double value) {
+        Arrays.fill(data, value);
+    }
+
+    @Override
+    public void scaleRow(int row, double factor) {
+        KERNELS.scale(data, rowBase[row] + row, rowBase[row] + size, factor);
+    }
+
+    @Override
+    public void clampRow(int row, double min, double max) {
+        KERNELS.clamp(data, rowBase[row] + row, rowBase[row] + size, min, max);
+    }
+
+    @Override
+    public double gatherRow(int row, int[] columns, int count, double[] out) {
+        double sum = 0.0;
+        for (int k = 0; k < count; k++) {
+            double value = data[index(row, columns[k])];
+            out[k] = value;
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Override
+    public void powerProductRow(int row, WeightMatrix base, double exponent, WeightMatrix factor) {
+        if (base instanceof TriangularWeightMatrix b && factor instanceof TriangularWeightMatrix f)
+            KERNELS.powerProduct(b.data, f.data, data, rowBase[row] + row, rowBase[row] + size, exponent);
+        else
+            WeightMatrix.super.powerProductRow(row, base, exponent, factor);
+    }
+
+    @Override
+    public WeightMatrix copy() {
+        return new TriangularWeightMatrix(size, rowBase, data.clone());
+    }
+}
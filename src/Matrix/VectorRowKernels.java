@@ -0,0 +1,64 @@
+package Matrix;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD kernels; only instantiated reflectively by RowKernels.vector() once the module is known to be present.
+// Sums are accumulated per lane, so they can differ from the scalar ones in the last bits.
+final class VectorRowKernels implements RowKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vector(" + SPECIES.length() + " lanes)";
+    }
+
+    @Override
+    public void scale(double[] data, int from, int to, double factor) {
+        int k = from;
+        for (int upper = from + SPECIES.loopBound(to - from); k < upper; k += SPECIES.length())
+            DoubleVector.fromArray(SPECIES, data, k).mul(factor).intoArray(data, k);
+        for (; k < to; k++)
+            data[k] *= factor;
+    }
+
+    @Override
+    public void clamp(double[] data, int from, int to, double min, double max) {
+        int k = from;
+        for (int upper = from + SPECIES.loopBound(to - from); k < upper; k += SPECIES.length())
+            DoubleVector.fromArray(SPECIES, data, k).max(min).min(max).intoArray(data, k);
+        for (; k < to; k++)
+            data[k] = Math.min(Math.max(data[k], min), max);
+    }
+
+    @Override
+    public double gather(double[] data, int base, int[] columns, int count, double[] out) {
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        int k = 0;
+        for (int upper = SPECIES.loopBound(count); k < upper; k += SPECIES.length()) {
+            DoubleVector values = DoubleVector.fromArray(SPECIES, data, base, columns, k);
+            values.intoArray(out, k);
+            sums = sums.add(values);
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; k < count; k++) {
+            double value = data[base + columns[k]];
+            out[k] = value;
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Override
+    public void powerProduct(double[] base, double[] factor, double[] out, int from, int to, double exponent) {
+        int k = from;
+        for (int upper = from + SPECIES.loopBound(to - from); k < upper; k += SPECIES.length()) {
+            DoubleVector values = DoubleVector.fromArray(SPECIES, base, k);
+            if (exponent != 1.0) values = values.lanewise(VectorOperators.POW, exponent);
+            values.mul(DoubleVector.fromArray(SPECIES, factor, k)).intoArray(out, k);
+        }
+        for (; k < to; k++)
+            out[k] = Math.pow(base[k], exponent) * factor[k];
+    }
+}
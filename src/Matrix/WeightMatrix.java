@@ -0,0 +1,36 @@
+package Matrix;
+
+// Real-valued per-edge weights: pheromone, heuristic and choice information
+public interface WeightMatrix {
+    int size();
+
+    // First column stored in row: scaleRow, and any loop over stored cells, covers firstColumn(row)..size-1
+    default int firstColumn(int row) {
+        return 0;
+    }
+
+    double get(int i, int j);
+
+    void set(int i, int j, double value);
+
+    void add(int i, int j, double value);
+
+    void fill(double value);
+
+    void scaleRow(int row, double factor);
+
+    // Clamps the stored cells of row to [min, max]
+    void clampRow(int row, double min, double max);
+
+    // Copies the cells at the first count entries of columns into out[0..count) and returns their sum
+    double gatherRow(int row, int[] columns, int count, double[] out);
+
+    // this(row, j) = base(row, j)^exponent * factor(row, j) over the stored cells of row;
+    // base and factor must share this matrix's layout
+    default void powerProductRow(int row, WeightMatrix base, double exponent, WeightMatrix factor) {
+        for (int j = firstColumn(row); j < size(); j++)
+            set(row, j, Math.pow(base.get(row, j), exponent) * factor.get(row, j));
+    }
+
+    WeightMatrix copy();
+}
@@ -1,44 +1,85 @@
 package Parallel;
 
+import Matrix.DistanceMatrix;
+
+import java.util.Arrays;
+
 public class Ant {
     protected int trailSize;
     protected int[] trail;
-    protected boolean[] visited;
+    protected long[] unvisited; // bit c of word c / 64 is set while city c is not on the trail
+    protected int[] position; // index of each city in trail
     private int currentCity;
     private int numVisitedCities = 0;
+    private int tourLength;   // of the trail so far, closing edge included once every city is visited
 
     public Ant(int tourSize) {
         this.trailSize = tourSize;
         this.trail = new int[tourSize];
-        this.visited = new boolean[tourSize];
+        this.unvisited = new long[(tourSize + 63) >>> 6];
+        clear();
+        this.position = new int[tourSize];
     }
 
-    protected void visitCity(int cityTo) {
+    protected void visitCity(int cityTo, DistanceMatrix graph) {
+        tourLength += graph.get(currentCity, cityTo);
+        position[cityTo] = numVisitedCities;
         trail[numVisitedCities++] = cityTo;
-        visited[cityTo] = true;
+        unvisited[cityTo >>> 6] &= ~(1L << cityTo);
         currentCity = cityTo;
+        if (numVisitedCities == trailSize)
+            tourLength += graph.get(cityTo, trail[0]);
+    }
+
+    // Length of the complete tour, accumulated by visitCity
+    protected int getTourLength() {
+        return tourLength;
     }
 
     protected boolean visited(int i) {
-        return visited[i];
+        return (unvisited[i >>> 6] & (1L << i)) == 0;
+    }
+
+    // The trail was reordered in place, e.g. by local search, and got shorter by gain
+    protected void trailImproved(long gain) {
+        tourLength -= (int) gain;
+        for (int i = 0; i < trailSize; i++)
+            position[trail[i]] = i;
     }
 
-    protected int trailLength(int[][] graph) {
-        int length = graph[trail[trailSize - 1]][trail[0]];
+    // Full recomputation, e.g. after the trail is modified in place
+    protected int trailLength(DistanceMatrix graph) {
+        int length = graph.get(trail[trailSize - 1], trail[0]);
         for (int i = 0; i < trailSize - 1; i++)
-            length += graph[trail[i]][trail[i + 1]];
+            length += graph.get(trail[i], trail[i + 1]);
         return length;
     }
 
+    // city visited right after `city`, closing the tour back to the first one
+    protected int successor(int city) {
+        int next = position[city] + 1;
+        return next == trailSize ? trail[0] : trail[next];
+    }
+
+    // city visited right before `city`, the first one being preceded by the last
+    protected int predecessor(int city) {
+        int previous = position[city] - 1;
+        return previous < 0 ? trail[trailSize - 1] : trail[previous];
+    }
+
+    // Word-level reset: every city unvisited again, the bits past the last city stay clear
     protected void clear() {
-        for (int i = 0; i < trailSize; i++)
-            visited[i] = false;
+        Arrays.fill(unvisited, -1L);
+        if ((trailSize & 63) != 0)
+            unvisited[unvisited.length - 1] = (1L << trailSize) - 1;
         numVisitedCities = 0;
+        tourLength = 0;
     }
 
     protected void setFirstCity(int city) {
         currentCity = city;
-        visited[city] = true;
+        unvisited[city >>> 6] &= ~(1L << city);
+        position[city] = 0;
         trail[0] = city;
         numVisitedCities++;
     }
@@ -47,8 +88,8 @@ public class Ant {
         return trail;
     }
 
-    protected boolean[] getVisited(){
-        return visited;
+    protected long[] getUnvisited(){
+        return unvisited;
     }
 
     protected int getCurrentCity() {
@@ -1,11 +1,35 @@
 package Parallel;
 
+import Instance.RandomInstance;
+import Matrix.*;
+import Search.Colonies;
+import Search.LocalSearch;
+import Selection.Roulette;
+import Solver.Incumbent;
+import Solver.Parameters;
+import Solver.PhaseTimes;
+import Solver.Result;
+import Solver.Termination;
+
+import java.io.Serial;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.*;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 
 public class AntColonyOptimization {
+    // MMAS stagnation test: every this many iterations, the lambda-branching factor with this lambda
+    // is compared to its converged value (2 edges per city, 1 for asymmetric trails) plus the slack
+    private static final int STAGNATION_CHECK_INTERVAL = 10;
+    private static final int LOCAL_SEARCH_NEIGHBOURS = 10;
+
     /*
      * default
      * private double c = 1.0;
@@ -19,6 +43,9 @@ public class AntColonyOptimization {
      */
 
 //    public final Random globalRandom = new Random(1464849039161L);
+    private long masterSeed = new SplittableRandom().nextLong();
+    private long iterationNumber; // iterations started in this run, part of every ant's stream seed
+    private long iterationsToBest; // iterationNumber when the best tour was found
     private double c = 1.0;
     private double alpha = 1;
     private double beta = 5;
@@ -26,22 +53,146 @@ public class AntColonyOptimization {
     private double Q = 100.0 * 5;
     private double randomFactor = 0.1;
     private int maxIterations = 200;
+    private int attempts = 20;
+    private boolean quiet;           // no per-attempt output
+    private boolean islandMode;      // attempts run concurrently as independent colonies
+    private int migrationInterval;   // iterations between migrations of the islands' best tours, 0 = never
+    // MAX-MIN Ant System: only the iteration's best ant deposits, trails stay within [tau_min, tau_max]
+    // and are reinitialized once the colony stagnates
+    private boolean maxMin;
+    private double pBest = 0.05;     // MMAS: chance of rebuilding the best tour once converged, sets tau_min
+    private int restartLimit = 3;    // MMAS: restarts in a row without a better tour before the run stops
+    private double boundLength;      // MMAS: best length before this iteration, read by the workers
+    private long nearestNeighbourLength; // of the greedy tour, bounds the trails until there is a best tour
+    private double bestAtRestart;    // MMAS: best length at the last restart of this attempt
+    private int unproductiveRestarts; // MMAS: restarts in a row that found no better tour
+    private int restarts;
+    // Termination besides the iteration budget: the first policy that is set and met ends the run
+    private long timeLimitNanos;     // 0 = none
+    private double targetLength;     // 0 = none
+    private int stallIterations;     // 0 = none, iterations without a better tour
+    private long runStart;           // System.nanoTime() when the run started
+    private Termination termination = Termination.COMPLETED;
+    // Shared with the islands: the run's best tour for anytime readers, and the cancellation request
+    private AtomicReference<Incumbent> incumbent = new AtomicReference<>();
+    private AtomicBoolean cancelled = new AtomicBoolean();
     private int numberOfAnts;
     private int numberOfCities;
-    private int[][] graph;
-    private double[][] trails;
+    private DistanceMatrix graph;
+    private WeightMatrix trails;
+    private WeightMatrix heuristic;  // eta^beta, fixed per graph
+    private WeightMatrix choiceInfo; // tau^alpha * eta^beta, refreshed per iteration
+    private boolean singlePrecision;
+    private boolean symmetric;       // graph and weights in packed upper-triangular storage
+    private int[][] candidateLists; // k nearest cities per city, null when the mode is off
+    private LocalSearch.Factory localSearch; // stage after tour construction, one instance per worker; null = off
+    private int[][] searchNeighbours;        // neighbour lists of the local search
     private List<Ant> ants;
+    private double[] antDeposits;   // Q / tour length of each ant in the current iteration
+    // shortest tour of the current iteration as (length << 32 | ant), min-reduced by the workers
+    private final AtomicLong iterationBest = new AtomicLong(Long.MAX_VALUE);
 
     private int[] bestTourOrder;
     private double bestTourLength ;
+    // time spent per phase over all iterations so far
+    private long constructNanos;
+    private long updateBestNanos;
+    private long trailUpdateNanos;
 
     private int numberOfThreads = 2; // default min value
-    CountDownLatch countDownLatch;
+    // long-lived workers, each owning a fixed range of ants, synchronized per iteration
+    private Phaser iterationBarrier;
+    private List<Thread> workerThreads;
+    private volatile Throwable workerFailure;
+    // workers wait for awaitTrailUpdate before updating their rows instead of overlapping updateBest
+    private boolean separatePhases;
+    // Work-stealing mode: tours and row blocks run as fork/join tasks instead of fixed worker ranges
+    private boolean workStealing;
+    private int splitThreshold;      // ants (rows) per leaf task, 0 = an eighth of an even share per thread
+    private ForkJoinPool stealingPool;
+    private ForkJoinTask<?> rowUpdate; // trail update in flight, work-stealing mode
+    private AntWorker callerWorker;    // workspace of a leaf task run outside the pool, see RangeTask
 
     public AntColonyOptimization(int noOfCities, int minDistance, int maxDistance) {
         initializeParams(noOfCities, minDistance, maxDistance);
     }
 
+    // symmetric: d(i, j) == d(j, i), edges share one pheromone cell and take half the memory
+    public AntColonyOptimization(int noOfCities, int minDistance, int maxDistance, boolean symmetric) {
+        this.symmetric = symmetric;
+        initializeParams(noOfCities, minDistance, maxDistance);
+    }
+
+    // Solves the given instance, e.g. an Instance.CoordinateInstance; symmetric ones use triangular storage
+    public AntColonyOptimization(DistanceMatrix graph) {
+        this.symmetric = graph.isSymmetric();
+        initializeParams(graph);
+    }
+
+    // Configured by parameters, quiet, for ParallelSolver and MultiTenantSolver
+    AntColonyOptimization(DistanceMatrix graph, Parameters parameters) {
+        this(graph);
+        alpha = parameters.alpha();
+        evaporation = parameters.evaporation();
+        Q = parameters.q();
+        randomFactor = parameters.randomFactor();
+        maxIterations = parameters.maxIterations();
+        attempts = parameters.attempts();
+        numberOfThreads = parameters.threads();
+        workStealing = parameters.workStealing();
+        islandMode = parameters.islandMode();
+        migrationInterval = parameters.migrationInterval();
+        maxMin = parameters.maxMin();
+        pBest = parameters.pBest();
+        restartLimit = parameters.restartLimit();
+        masterSeed = parameters.seed();
+        setTimeLimit(parameters.timeLimit());
+        targetLength = parameters.targetLength();
+        stallIterations = parameters.stallIterations();
+        quiet = true;
+        if (parameters.ants() > 0) setNumberOfAnts(parameters.ants());
+        if (parameters.singlePrecision()) setSinglePrecision(true);
+        if (parameters.beta() != beta) setBeta(parameters.beta());
+        setCandidateListSize(parameters.candidateListSize());
+        setLocalSearch(parameters.localSearch());
+    }
+
+    // Island of the given colony: own trails, choiceInfo and ants, sharing the read-only graph,
+    // heuristic and candidate lists. An island runs single-threaded on its own thread.
+    private AntColonyOptimization(AntColonyOptimization colony, int island) {
+        c = colony.c;
+        alpha = colony.alpha;
+        beta = colony.beta;
+        evaporation = colony.evaporation;
+        Q = colony.Q;
+        randomFactor = colony.randomFactor;
+        maxIterations = colony.maxIterations;
+        migrationInterval = colony.migrationInterval;
+        maxMin = colony.maxMin;
+        pBest = colony.pBest;
+        restartLimit = colony.restartLimit;
+        nearestNeighbourLength = colony.nearestNeighbourLength;
+        timeLimitNanos = colony.timeLimitNanos;
+        targetLength = colony.targetLength;
+        stallIterations = colony.stallIterations;
+        runStart = colony.runStart;
+        incumbent = colony.incumbent;
+        cancelled = colony.cancelled;
+        masterSeed = AntRandom.islandSeed(colony.masterSeed, island);
+        quiet = true;
+        graph = colony.graph;
+        numberOfCities = colony.numberOfCities;
+        singlePrecision = colony.singlePrecision;
+        symmetric = colony.symmetric;
+        heuristic = colony.heuristic;
+        candidateLists = colony.candidateLists;
+        localSearch = colony.localSearch;
+        searchNeighbours = colony.searchNeighbours;
+        trails = newWeightMatrix();
+        choiceInfo = newWeightMatrix();
+        setNumberOfAnts(colony.numberOfAnts);
+    }
+
     AntColonyOptimization(double tr, double al, double be, double ev, int q, double af, double rf, int iter, int noOfCities, int minDistance, int maxDistance) {
         c = tr;
         alpha = al;
@@ -54,244 +205,948 @@ public class AntColonyOptimization {
     }
 
     private void initializeParams(int noOfCities, int minDistance, int maxDistance) {
-        graph = generateRandomCity(noOfCities, minDistance, maxDistance);
+        initializeParams(generateRandomCity(noOfCities, minDistance, maxDistance));
+    }
+
+    private void initializeParams(DistanceMatrix graph) {
+        int noOfCities = graph.size();
+        this.graph = graph;
         this.numberOfCities = noOfCities;
-        trails = new double[noOfCities][noOfCities];
-        numberOfAnts = noOfCities ;
-        ants = new ArrayList<>(numberOfAnts);
-        for (int i = 0; i < numberOfAnts; i++)
-            ants.add(new Ant(noOfCities));
+        trails = newWeightMatrix();
+        choiceInfo = newWeightMatrix();
+        setNumberOfAnts(noOfCities);
+        computeHeuristic();
     }
 
-    private void solve()  {
-        resetAnts();
-        clearTrails();
+    // One attempt; false once a termination policy has ended the whole run
+    private boolean solve()  {
+        initializeTrails();
 
-        // create tasks
-        List<AntWorker> tasks = createTasks();
-
-        // create ES
-        ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
-        List<Future<?>> futures = null;
-        // load tasks
-        for(int iteration = 0; iteration < maxIterations; iteration++) {
-            countDownLatch = new CountDownLatch(numberOfAnts);
-            futures = new ArrayList<>(numberOfAnts);
-            for(AntWorker task : tasks) {
-               futures.add(executorService.submit(task));
+        bestAtRestart = Double.MAX_VALUE;
+        boolean running = true;
+        for(int iteration = 1; iteration <= maxIterations; iteration++) {
+            iterate();
+            if (terminated()) {
+                running = false;
+                break;
             }
+            if (maxMin && !checkStagnation(iteration)) break;
+       }
 
-            try{
-                for(Future<?> future : futures) {
-                    future.get();
-                }
-            }catch (InterruptedException | ExecutionException _) {}
+        if (!quiet) {
+            System.out.println("Best tour length: " + bestTourLength);
+            System.out.println("Best tour order: " + Arrays.toString(bestTourOrder));
+        }
+        return running;
+    }
+
+    // Cancelled or out of time; the workers check this before every tour, so they stop within one tour
+    private boolean stopRequested() {
+        return cancelled.get() || timeLimitNanos > 0 && System.nanoTime() - runStart >= timeLimitNanos;
+    }
+
+    // Checked after every iteration; records which policy ended the run
+    private boolean terminated() {
+        Incumbent best;
+        if (cancelled.get()) termination = Termination.CANCELLED;
+        else if (timeLimitNanos > 0 && System.nanoTime() - runStart >= timeLimitNanos) termination = Termination.TIME_LIMIT;
+        else if (targetLength > 0 && (best = incumbent.get()) != null && best.length() <= targetLength)
+            termination = Termination.TARGET_LENGTH;
+        else if (stallIterations > 0 && iterationNumber - iterationsToBest >= stallIterations)
+            termination = Termination.STALLED;
+        else return false;
+        return true;
+    }
+
+    // Makes the new best tour visible to getIncumbent; islands keep whichever of theirs is shortest
+    private void publishBest() {
+        Incumbent candidate = new Incumbent(bestTourOrder, bestTourLength, iterationNumber, System.nanoTime() - runStart);
+        incumbent.accumulateAndGet(candidate, Incumbent::better);
+    }
+
+    // Resets the run-wide counters; a cancellation requested before the start stays in effect
+    private void beginRun() {
+        iterationNumber = 0;
+        iterationsToBest = 0;
+        termination = Termination.COMPLETED;
+        runStart = System.nanoTime();
+    }
+
+    // The phases below are package-private so the benchmark module can time them one by one;
+    // constructTours, updateBest and awaitTrailUpdate need the workers started
+
+    void initializeTrails() {
+        clearTrails();
+        computeChoiceInformation();
+    }
+
+    void iterate() {
+        long start = System.nanoTime();
+        constructTours();
+        long toursBuilt = System.nanoTime();
+        // workers are evaporating and depositing their rows meanwhile; updateBest only reads the tours
+        updateBest();
+        long bestUpdated = System.nanoTime();
+        awaitTrailUpdate();
+        long end = System.nanoTime();
+        constructNanos += toursBuilt - start;
+        updateBestNanos += bestUpdated - toursBuilt;
+        trailUpdateNanos += end - bestUpdated;
+    }
+
+    // One phase releases the workers, the next one waits until every ant has a tour
+    // (work-stealing mode: the tours run as one task tree, then the row update is forked unless the
+    // phases are separate)
+    void constructTours() {
+        beginIteration(); // published to the workers by the phase advance
+        if (workStealing) {
+            stealingPool.invoke(new RangeTask(0, numberOfAnts, antGrain(), false));
+            if (!separatePhases) rowUpdate = stealingPool.submit(new RangeTask(0, numberOfCities, rowGrain(), true));
+            return;
+        }
+        iterationBarrier.arriveAndAwaitAdvance();
+        iterationBarrier.arriveAndAwaitAdvance();
+        checkWorkers();
+    }
+
+    // Waits until every row of trails and choiceInfo is updated for the next iteration
+    void awaitTrailUpdate() {
+        if (workStealing) {
+            ForkJoinTask<?> update = rowUpdate != null ? rowUpdate
+                    : stealingPool.submit(new RangeTask(0, numberOfCities, rowGrain(), true));
+            rowUpdate = null;
+            update.join();
+            return;
+        }
+        if (separatePhases) iterationBarrier.arriveAndAwaitAdvance();
+        iterationBarrier.arriveAndAwaitAdvance();
+        checkWorkers();
+    }
+
+    // Per-iteration state the workers read
+    private void beginIteration() {
+        iterationNumber++;
+        iterationBest.set(Long.MAX_VALUE);
+        if (maxMin) boundLength = bestLengthSoFar();
+    }
+
+    private void checkWorkers() {
+        Throwable failure = workerFailure;
+        if (failure != null)
+            throw new RuntimeException("Ant worker failed", failure);
+    }
+
+    // Takes effect at the next startWorkers
+    void separatePhases(boolean separatePhases) {
+        this.separatePhases = separatePhases;
+    }
 
+    void startWorkers() {
+        int threads = Math.max(1, Math.min(numberOfThreads, numberOfAnts));
+        if (workStealing) {
+            stealingPool = new ForkJoinPool(threads, StealingThread::new, null, false);
+            callerWorker = new AntWorker(0, 0, 0, 0);
+            return;
+        }
+        iterationBarrier = new Phaser(threads + 1);
+        workerFailure = null;
+        workerThreads = new ArrayList<>(threads);
+        int[] rows = rowBlocks(threads);
+        for (int t = 0; t < threads; t++) {
+            AntWorker worker = new AntWorker(t * numberOfAnts / threads, (t + 1) * numberOfAnts / threads,
+                    rows[t], rows[t + 1]);
+            workerThreads.add(Thread.ofPlatform().daemon().name("aco-worker-" + t).start(worker));
+        }
+    }
+
+    // Row boundaries giving every worker about the same number of stored cells
+    private int[] rowBlocks(int threads) {
+        long total = 0;
+        for (int r = 0; r < numberOfCities; r++)
+            total += numberOfCities - trails.firstColumn(r);
+
+        int[] bounds = new int[threads + 1];
+        long cells = 0;
+        int t = 1;
+        for (int r = 0; r < numberOfCities && t < threads; r++) {
+            cells += numberOfCities - trails.firstColumn(r);
+            while (t < threads && cells * threads >= total * t)
+                bounds[t++] = r + 1;
+        }
+        while (t <= threads)
+            bounds[t++] = numberOfCities;
+        return bounds;
+    }
+
+    private int antGrain() {
+        return splitThreshold > 0 ? splitThreshold
+                : Math.max(1, numberOfAnts / (8 * stealingPool.getParallelism()));
+    }
+
+    private int rowGrain() {
+        return splitThreshold > 0 ? splitThreshold
+                : Math.max(1, numberOfCities / (8 * stealingPool.getParallelism()));
+    }
+
+    void stopWorkers() {
+        if (workStealing) {
+            rowUpdate = null;
+            stealingPool.close(); // waits for the tasks still running
+            return;
+        }
+        iterationBarrier.forceTermination();
+        for (Thread thread : workerThreads) {
             try {
-                countDownLatch.await();
-            } catch (InterruptedException e) {
+                thread.join();
+            } catch (InterruptedException _) {
                 Thread.currentThread().interrupt();
-                throw new RuntimeException("Interrupted while waiting for ants to finish", e);
+                return;
             }
+        }
+    }
 
-            updateTrails();
-            updateBest();
-            if (iteration < maxIterations - 1) resetAnts();
-       }
+    // Tour construction for a single ant on the calling thread, for allocation and timing checks
+    Runnable singleAntTour() {
+        initializeTrails();
+        Ant ant = ants.getFirst();
+        AntWorker worker = new AntWorker(0, 1, 0, numberOfCities);
+        long seed = AntRandom.streamSeed(masterSeed, 0, 0);
+        return () -> worker.constructTour(ant, seed);
+    }
+
+    // Runs a few iterations and compares the row-partitioned pheromone update with the serial one, bit for bit
+    boolean trailUpdateMatchesSerial(int iterations) {
+        startWorkers();
+        try {
+            initializeTrails();
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                WeightMatrix expected = trails.copy();
+                constructTours();
+                updateTrails(expected);
+                awaitTrailUpdate();
+                for (int i = 0; i < numberOfCities; i++)
+                    for (int j = 0; j < numberOfCities; j++)
+                        if (Double.compare(trails.get(i, j), expected.get(i, j)) != 0) return false;
+            }
+            return true;
+        } finally {
+            stopWorkers();
+        }
+    }
+
+    public void startAntOptimization() {
+        beginRun();
+        if (islandMode) {
+            startIslands();
+            return;
+        }
+        startWorkers();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                if (!quiet) System.out.println("\nAttempt #" + (i+1));
+                if (!solve()) break;
+            }
+        } finally {
+            stopWorkers();
+        }
+//        System.out.print("\nLength: " + bestTourLength + " Naive Solution: " + IntStream.of(graph[0]).sum() + " ");
+    }
 
-        // shutdown
-        shutdownAndAwaitTermination(executorService);
+    // Every attempt is an island on its own thread; the best tour over all islands becomes the result
+    private void startIslands() {
+        int islands = attempts;
+        List<AntColonyOptimization> colonies = new ArrayList<>(islands);
+        for (int i = 0; i < islands; i++)
+            colonies.add(new AntColonyOptimization(this, i));
+        Phaser migration = migrationInterval > 0 ? new Phaser(islands) : null;
+        int[][] migrants = new int[islands][];
+        Throwable[] failures = new Throwable[islands];
 
+        List<Thread> threads = new ArrayList<>(islands);
+        for (int i = 0; i < islands; i++) {
+            int island = i;
+            threads.add(Thread.ofPlatform().name("aco-island-" + i).start(() -> {
+                try {
+                    colonies.get(island).solveIsland(island, migration, migrants);
+                } catch (Throwable t) {
+                    failures[island] = t;
+                    if (migration != null) migration.forceTermination(); // release the islands waiting for this one
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        for (Throwable failure : failures)
+            if (failure != null) throw new RuntimeException("Island failed", failure);
+
+        for (int i = 0; i < islands; i++) {
+            AntColonyOptimization colony = colonies.get(i);
+            if (!quiet) System.out.println("Island #" + (i + 1) + " best tour length: " + colony.bestTourLength);
+            if (bestTourOrder == null || colony.bestTourLength < bestTourLength) {
+                bestTourLength = colony.bestTourLength;
+                bestTourOrder = colony.bestTourOrder.clone();
+                iterationsToBest = colony.iterationsToBest;
+            }
+            if (termination == Termination.COMPLETED) termination = colony.termination;
+            iterationNumber += colony.iterationNumber;
+            restarts += colony.restarts;
+            // summed over islands that ran at the same time, so the phases can exceed the wall clock
+            constructNanos += colony.constructNanos;
+            updateBestNanos += colony.updateBestNanos;
+            trailUpdateNanos += colony.trailUpdateNanos;
+        }
+        if (quiet) return;
         System.out.println("Best tour length: " + bestTourLength);
         System.out.println("Best tour order: " + Arrays.toString(bestTourOrder));
     }
 
-    private List<AntWorker> createTasks() {
-        List<AntWorker> tasks = new ArrayList<>();
-        for(int i = 0; i < numberOfAnts; i++) {
-            tasks.add(new AntWorker(ants.get(i)));
-        }
+    // One attempt on the calling thread: a single inline worker builds every tour and updates every row
+    private void solveIsland(int island, Phaser migration, int[][] migrants) {
+        AntWorker worker = new AntWorker(0, numberOfAnts, 0, numberOfCities);
+        initializeTrails();
+        bestAtRestart = Double.MAX_VALUE;
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            iterateInline(worker);
+            if (terminated()) {
+                if (migration != null) migration.arriveAndDeregister();
+                return;
+            }
 
-        return tasks;
+            if (migration != null && iteration % migrationInterval == 0 && iteration < maxIterations
+                    && !migrate(island, migration, migrants)) return;
+            if (maxMin && !checkStagnation(iteration)) {
+                // the others migrate on without this island, its last published tour stays in the ring
+                if (migration != null) migration.arriveAndDeregister();
+                return;
+            }
+        }
     }
 
-    private void shutdownAndAwaitTermination(ExecutorService executorService) {
-        executorService.shutdown();
-        try {
-            int EXECUTOR_SERVICE_TIMEOUT_SECONDS = 3;
-            if (!executorService.awaitTermination(EXECUTOR_SERVICE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
-                if (!executorService.awaitTermination(EXECUTOR_SERVICE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
-                    System.err.println("Executor did not terminate");
+    // Every attempt on the calling thread, for MultiTenantSolver: one inline worker, and a yield after each
+    // iteration so the colonies sharing the carrier threads take turns. Builds the same tours as
+    // startAntOptimization with the same seed. An interrupt ends it between iterations.
+    void solveAsTenant() throws InterruptedException {
+        AntWorker worker = new AntWorker(0, numberOfAnts, 0, numberOfCities);
+        beginRun();
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            initializeTrails();
+            bestAtRestart = Double.MAX_VALUE;
+            for (int iteration = 1; iteration <= maxIterations; iteration++) {
+                iterateInline(worker);
+                Thread.yield();
+                if (Thread.interrupted()) throw new InterruptedException();
+                if (terminated()) return;
+                if (maxMin && !checkStagnation(iteration)) break;
             }
-        } catch (InterruptedException e) {
-            executorService.shutdownNow();
-            Thread.currentThread().interrupt();
         }
     }
 
-    public void startAntOptimization() {
-        int attempts = 20;
-        for (int i = 0; i < attempts; i++) {
-            System.out.println("\nAttempt #" + (i+1));
-            solve();
+    // One iteration on the calling thread, phase times included
+    private void iterateInline(AntWorker worker) {
+        beginIteration();
+        long start = System.nanoTime();
+        worker.constructTours();
+        long toursBuilt = System.nanoTime();
+        updateBest();
+        long bestUpdated = System.nanoTime();
+        worker.updateRows();
+        trailUpdateNanos += System.nanoTime() - bestUpdated;
+        updateBestNanos += bestUpdated - toursBuilt;
+        constructNanos += toursBuilt - start;
+    }
+
+    // Ring migration: every island publishes its best tour, then takes the one of its predecessor as its
+    // best if shorter and deposits pheromone along it, clamped to the MMAS bounds in that mode.
+    // Returns false once another island has failed.
+    private boolean migrate(int island, Phaser migration, int[][] migrants) {
+        migrants[island] = bestTourOrder.clone();
+        if (migration.arriveAndAwaitAdvance() < 0) return false;
 
+        int[] migrant = migrants[(island + migrants.length - 1) % migrants.length];
+        double length = 0;
+        for (int i = 0; i < numberOfCities; i++)
+            length += graph.get(migrant[i], migrant[(i + 1) % numberOfCities]);
+        if (length < bestTourLength) {
+            bestTourLength = length;
+            bestTourOrder = migrant.clone();
+            iterationsToBest = iterationNumber;
+            publishBest();
         }
-//        System.out.print("\nLength: " + bestTourLength + " Naive Solution: " + IntStream.of(graph[0]).sum() + " ");
+        for (int i = 0; i < numberOfCities; i++)
+            trails.add(migrant[i], migrant[(i + 1) % numberOfCities], Q / length);
+        if (maxMin) {
+            // the deposit must not leave the MMAS bounds, which follow the (possibly migrant) best tour
+            double trailMax = trailMax(bestTourLength), trailMin = trailMin(trailMax);
+            for (int i = 0; i < numberOfCities; i++)
+                trails.clampRow(i, trailMin, trailMax);
+        }
+        computeChoiceInformation();
+        // nobody publishes the next migrant before every island has read this one
+        return migration.arriveAndAwaitAdvance() >= 0;
     }
 
+    // MMAS starts every trail at tau_max, so the first iterations explore
     private void clearTrails() {
-        for (int i = 0; i < numberOfCities; i++) {
-            for (int j = 0; j < numberOfCities; j++) {
-                trails[i][j] = c;
-            }
-        }
+        trails.fill(maxMin ? trailMax(bestLengthSoFar()) : c);
     }
 
-    private void updateTrails() {
-        for (int i = 0; i < numberOfCities; i++) {
-            for (int j = 0; j < numberOfCities; j++)
-                trails[i][j] *= evaporation;
+    // MMAS: every STAGNATION_CHECK_INTERVAL iterations a stagnated colony restarts from fresh trails;
+    // false ends the attempt once restartLimit restarts in a row found no better tour. Reads the trails
+    // between iterations, while the workers are parked.
+    private boolean checkStagnation(int iteration) {
+        if (iteration % STAGNATION_CHECK_INTERVAL != 0 || !Colonies.stagnated(trails, symmetric)) return true;
+        if (bestTourLength < bestAtRestart) {
+            bestAtRestart = bestTourLength;
+            unproductiveRestarts = 0;
+        } else if (++unproductiveRestarts > restartLimit) {
+            return false;
         }
-        for (Ant a : ants) {
-            double contribution = Q / a.trailLength(graph);
+        restarts++;
+        initializeTrails();
+        return true;
+    }
+
+    private double bestLengthSoFar() {
+        if (bestTourOrder != null) return bestTourLength;
+        if (nearestNeighbourLength == 0) nearestNeighbourLength = Colonies.nearestNeighbourTourLength(graph);
+        return nearestNeighbourLength;
+    }
+
+    private double trailMax(double bestLength) {
+        return Colonies.trailMax(Q, evaporation, bestLength);
+    }
+
+    private double trailMin(double trailMax) {
+        return Colonies.trailMin(trailMax, pBest, numberOfCities);
+    }
+
+    // Serial reference for AntWorker.updateRows
+    private void updateTrails(WeightMatrix trails) {
+        for (int i = 0; i < numberOfCities; i++)
+            trails.scaleRow(i, evaporation);
+        long best = iterationBest.get();
+        for (Ant a : maxMin ? List.of(ants.get((int) best)) : ants) {
+            double contribution = Q / a.getTourLength();
             for (int i = 0; i < numberOfCities - 1; i++)
-                trails[a.trail[i]][a.trail[i + 1]] += contribution;
-            trails[a.trail[numberOfCities - 1]][a.trail[0]] += contribution;
+                trails.add(a.trail[i], a.trail[i + 1], contribution);
+            trails.add(a.trail[numberOfCities - 1], a.trail[0], contribution);
         }
+        if (!maxMin) return;
+        double trailMax = trailMax(Math.min(boundLength, best >>> 32));
+        for (int i = 0; i < numberOfCities; i++)
+            trails.clampRow(i, trailMin(trailMax), trailMax);
     }
 
-    private void updateBest() {
-        if (bestTourOrder == null) {
-            bestTourOrder = ants.getFirst().trail;
-            bestTourLength = ants.getFirst().trailLength(graph);
+    // eta^beta is cached only for materialized graphs, on-demand distances keep computing it per iteration
+    private void computeHeuristic() {
+        if (!graph.isMaterialized()) {
+            heuristic = null;
+            return;
         }
-
-        for (Ant a : ants) {
-            double length = a.trailLength(graph);
-            if (length < bestTourLength) {
-                bestTourLength = length;
-                bestTourOrder = a.trail.clone();
+        heuristic = newWeightMatrix();
+        for (int i = 0; i < numberOfCities; i++) {
+            for (int j = heuristic.firstColumn(i); j < numberOfCities; j++) {
+                heuristic.set(i, j, heuristic(i, j));
             }
         }
     }
 
-    private void resetAnts() {
-        for (Ant ant : ants)  ant.clear();
+    // coincident cities count as distance 1, so their heuristic stays finite
+    private double heuristic(int i, int j) {
+        return i == j ? 0.0 : Math.pow(1.0 / Math.max(graph.get(i, j), 1), beta);
+    }
+
+    private WeightMatrix newWeightMatrix() {
+        if (symmetric) return new TriangularWeightMatrix(numberOfCities);
+        return singlePrecision ? new FloatWeightMatrix(numberOfCities) : new DoubleWeightMatrix(numberOfCities);
+    }
+
+    private void computeChoiceInformation() {
+        for (int i = 0; i < numberOfCities; i++)
+            computeChoiceInformation(i);
+    }
+
+    private void computeChoiceInformation(int row) {
+        if (heuristic != null) {
+            choiceInfo.powerProductRow(row, trails, alpha, heuristic);
+            return;
+        }
+        for (int j = choiceInfo.firstColumn(row); j < numberOfCities; j++)
+            choiceInfo.set(row, j, Math.pow(trails.get(row, j), alpha) * heuristic(row, j));
+    }
+
+    // The workers already reduced their ants to the iteration's shortest tour, ties going to the lowest
+    // ant index as in a serial scan; only that tour is compared and, when better, copied
+    // (none when the run was stopped before any tour of the iteration was built)
+    void updateBest() {
+        long best = iterationBest.get();
+        if (best == Long.MAX_VALUE) return;
+        int length = (int) (best >>> 32);
+        if (bestTourOrder == null || length < bestTourLength) {
+            bestTourLength = length;
+            bestTourOrder = ants.get((int) best).trail.clone();
+            iterationsToBest = iterationNumber;
+            publishBest();
+        }
     }
 
     public void prettyPrint() {
-        IntStream.range(0, graph.length).forEach(i -> System.out.print("\t" + i));
-        System.out.println("\n\t" + "----".repeat(graph.length));
+        prettyPrint(graph);
+    }
 
-        for (int i = 0; i < graph.length; i++) {
+    public static void prettyPrint(DistanceMatrix graph) {
+        int n = graph.size();
+        IntStream.range(0, n).forEach(i -> System.out.print("\t" + i));
+        System.out.println("\n\t" + "----".repeat(n));
+
+        for (int i = 0; i < n; i++) {
             System.out.print(i + " | ");
-            for (int j = 0; j < graph[i].length; j++) {
-                System.out.print(graph[i][j] + "\t");
+            for (int j = 0; j < n; j++) {
+                System.out.print(graph.get(i, j) + "\t");
             }
             System.out.println();
         }
     }
 
+    // One ant per city unless set otherwise; a new graph resets it to that default
+    public void setNumberOfAnts(int numberOfAnts) {
+        this.numberOfAnts = numberOfAnts;
+        ants = new ArrayList<>(numberOfAnts);
+        for (int i = 0; i < numberOfAnts; i++)
+            ants.add(new Ant(numberOfCities));
+        antDeposits = new double[numberOfAnts];
+    }
+
     public void setThreads(int nThreads) {
         this.numberOfThreads = nThreads;
     }
 
-    private int[][] generateRandomCity(int numberOfCities, int minDistance, int maxDistance) {
-        Random random = new Random();
-        int[][] randomCity = new int[numberOfCities][numberOfCities];
+    public void setAlpha(double alpha) {
+        this.alpha = alpha;
+    }
 
-        for (int i = 0; i < numberOfCities; i++) {
-            for (int j = 0; j < numberOfCities; j++) {
-                if (i == j) randomCity[i][j] = 0;
-                else randomCity[i][j] = random.nextInt(maxDistance - minDistance + 1) + minDistance;
-            }
-        }
-        return randomCity;
+    public void setBeta(double beta) {
+        this.beta = beta;
+        computeHeuristic();
+    }
+
+    // factor every trail is multiplied by before the deposit, i.e. the share of pheromone kept; below 1 for MMAS
+    public void setEvaporation(double evaporation) {
+        if (maxMin && evaporation >= 1) throw new IllegalArgumentException("MAX-MIN needs evaporation below 1");
+        this.evaporation = evaporation;
+    }
+
+    public void setQ(double Q) {
+        this.Q = Q;
+    }
+
+    public void setRandomFactor(double randomFactor) {
+        this.randomFactor = randomFactor;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    // Master seed of the per-ant random streams: a run with the same seed, instance and parameters
+    // builds the same tours whatever the thread count
+    public void setSeed(long seed) {
+        this.masterSeed = seed;
+    }
+
+    // Runs the attempts as concurrent islands, one thread each, instead of one after another on the workers
+    public void setIslandMode(boolean islandMode) {
+        this.islandMode = islandMode;
+    }
+
+    // Every interval iterations the islands pass their best tour on to the next island, 0 disables migration
+    public void setMigrationInterval(int migrationInterval) {
+        this.migrationInterval = migrationInterval;
+    }
+
+    // MAX-MIN Ant System: the iteration's best ant alone deposits and trails are clamped to [tau_min, tau_max].
+    // A colony whose lambda-branching factor shows it converged restarts from tau_max trails, and an attempt
+    // ends early after restartLimit restarts in a row without a better tour. Pairs with slower evaporation
+    // and no random moves, e.g. setEvaporation(0.9) and setRandomFactor(0), which lets the colony converge.
+    public void setMaxMin(boolean maxMin) {
+        if (maxMin && evaporation >= 1) throw new IllegalArgumentException("MAX-MIN needs evaporation below 1");
+        this.maxMin = maxMin;
+    }
+
+    // MMAS: probability that a converged colony rebuilds the best tour, the smaller the higher tau_min
+    public void setPBest(double pBest) {
+        this.pBest = pBest;
+    }
+
+    // MMAS: restarts in a row that find no better tour before an attempt stops
+    public void setRestartLimit(int restartLimit) {
+        this.restartLimit = restartLimit;
+    }
+
+    // Local search on every ant's tour between construction and the trail update, e.g.
+    // LocalSearch.twoOptOrOpt(), run inside the workers and timed with the construction; null turns it off.
+    // Takes effect at the next startWorkers.
+    public void setLocalSearch(LocalSearch.Factory localSearch) {
+        this.localSearch = localSearch;
+        searchNeighbours = localSearch == null ? null
+                : Colonies.nearestNeighbours(graph, Math.min(LOCAL_SEARCH_NEIGHBOURS, numberOfCities - 1));
+    }
+
+    // Schedules tour construction and the trail update on a ForkJoinPool instead of the fixed worker
+    // ranges: the ants (rows) are split in halves down to the split threshold, and idle threads steal the
+    // halves still queued. Pays off when tour costs vary, e.g. with random moves or local search.
+    // Seeded runs build the same tours either way. Takes effect at the next startWorkers.
+    public void setWorkStealing(boolean workStealing) {
+        this.workStealing = workStealing;
+    }
+
+    // Work stealing: ants (and rows) per leaf task; 0, the default, splits an even share per thread into eighths
+    public void setSplitThreshold(int splitThreshold) {
+        this.splitThreshold = splitThreshold;
+    }
+
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    public double getBestTourLength() {
+        return bestTourLength;
+    }
+
+    public int[] getBestTourOrder() {
+        return bestTourOrder == null ? null : bestTourOrder.clone();
+    }
+
+    public int getNumberOfCities() {
+        return numberOfCities;
+    }
+
+    // MMAS: stagnation restarts over all attempts so far
+    public int getRestarts() {
+        return restarts;
+    }
+
+    // The trail update overlaps updateBest, so its share is only the part left to wait for afterwards
+    public PhaseTimes getPhaseTimes() {
+        return new PhaseTimes(constructNanos, updateBestNanos, trailUpdateNanos);
+    }
+
+    // Iterations run so far, over all attempts (islands)
+    public long getIterations() {
+        return iterationNumber;
+    }
+
+    public long getIterationsToBest() {
+        return iterationsToBest;
+    }
+
+    // Run stops at the first of these that is met, besides the iteration budget of every attempt: a wall-clock
+    // limit from the start of the run (null = none), a target tour length (0 = none) and a number of
+    // iterations in a row without a better tour (0 = none)
+    public void setTimeLimit(Duration timeLimit) {
+        this.timeLimitNanos = timeLimit == null ? 0 : timeLimit.toNanos();
+    }
+
+    public void setTargetLength(double targetLength) {
+        this.targetLength = targetLength;
+    }
+
+    public void setStallIterations(int stallIterations) {
+        this.stallIterations = stallIterations;
+    }
+
+    // Safe from any thread: the workers stop before their next tour and the run returns its best so far.
+    // A cancelled colony stays cancelled.
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    // Best tour of the run so far, readable from any thread while it runs; null before the first tour
+    public Incumbent getIncumbent() {
+        return incumbent.get();
+    }
+
+    public Termination getTermination() {
+        return termination;
+    }
+
+    Result result(long elapsedNanos) {
+        return new Result(bestTourOrder, bestTourLength, iterationsToBest, iterationNumber, restarts,
+                getPhaseTimes(), elapsedNanos, termination);
+    }
+
+    // Stores pheromone and choice information as floats, and distances as shorts when they fit
+    // (symmetric instances keep their triangular double storage)
+    public void setSinglePrecision(boolean singlePrecision) {
+        this.singlePrecision = singlePrecision;
+        if (singlePrecision && graph instanceof IntDistanceMatrix && ShortDistanceMatrix.fits(graph))
+            graph = ShortDistanceMatrix.of(graph);
+        trails = newWeightMatrix();
+        choiceInfo = newWeightMatrix();
+        computeHeuristic();
+    }
+
+    // k > 0 restricts selection to the k nearest cities (full scan once they are all visited), k = 0 disables it
+    public void setCandidateListSize(int k) {
+        candidateLists = k > 0 ? Colonies.nearestNeighbours(graph, Math.min(k, numberOfCities - 1)) : null;
+    }
+
+    private DistanceMatrix generateRandomCity(int numberOfCities, int minDistance, int maxDistance) {
+        return RandomInstance.generate(numberOfCities, minDistance, maxDistance, symmetric, new Random());
     }
 
     public int naiveSolution() {
-        return IntStream.of(graph[0]).sum();
+        return IntStream.range(0, numberOfCities).map(j -> graph.get(0, j)).sum();
     }
 
-    private  int selectNextCity(Ant ant) {
-        Random localRandom = new Random();
+    // Pool thread of the work-stealing mode, with the tour-construction workspace its tasks use
+    private final class StealingThread extends ForkJoinWorkerThread {
+        private final AntWorker worker = new AntWorker(0, 0, 0, 0);
 
-        if (localRandom.nextDouble() < randomFactor) {
-            List<Integer> notVisitedCities = new ArrayList<>();
-            for (int i = 0; i < numberOfCities; i++) {
-                if (!ant.visited(i)) {
-                    notVisitedCities.add(i);
+        private StealingThread(ForkJoinPool pool) {
+            super(pool);
+        }
+
+        @Override
+        protected void onStart() {
+            super.onStart();
+            setName("aco-stealer-" + getPoolIndex());
+        }
+    }
+
+    // Ants [from, to) to build tours for, or rows [from, to) to update, split in halves down to grain
+    // items; the halves a thread has not started yet are what idle threads steal. The roots are submitted
+    // to the pool and the submitter only waits, so every leaf runs on a StealingThread of this colony.
+    private final class RangeTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;  // exclusive
+        private final int grain;
+        private final boolean rows;
+
+        private RangeTask(int from, int to, int grain, boolean rows) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.rows = rows;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(from, middle, grain, rows), new RangeTask(middle, to, grain, rows));
+                return;
+            }
+            // Invariant: invoke on this pool (not the common one) from an outside thread queues the task and
+            // blocks, so no leaf runs on the caller. Should that change, the colony's one caller thread uses
+            // a workspace of its own instead of failing a cast to StealingThread.
+            AntWorker worker = Thread.currentThread() instanceof StealingThread thread
+                    && thread.getPool() == stealingPool ? thread.worker : callerWorker;
+            if (rows) worker.updateRows(from, to);
+            else worker.constructTours(from, to);
+        }
+    }
+
+    private class AntWorker implements Runnable {
+        private final int firstAnt;
+        private final int lastAnt; // exclusive
+        private final int firstRow;
+        private final int lastRow; // exclusive
+        private Ant ant;           // ant whose tour is being built
+        // workspace reused across tours, so construction allocates nothing in steady state
+        private final AntRandom random = new AntRandom();
+        private final double[] weights;       // running choiceInfo totals, indexed like unvisited
+        private final LocalSearch search;     // null when the stage is off
+        private final int[] unvisited;        // cities not on the tour yet, first unvisitedCount entries
+        private final int[] unvisitedIndex;   // position of each city in unvisited
+        private int unvisitedCount;
+
+        public AntWorker(int firstAnt, int lastAnt, int firstRow, int lastRow) {
+            this.firstAnt = firstAnt;
+            this.lastAnt = lastAnt;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+            this.weights = new double[numberOfCities];
+            this.search = localSearch == null ? null : localSearch.create(graph, searchNeighbours);
+            this.unvisited = new int[numberOfCities];
+            this.unvisitedIndex = new int[numberOfCities];
+        }
+
+        @Override
+        public void run() {
+            while (iterationBarrier.arriveAndAwaitAdvance() >= 0) {
+                try {
+                    constructTours();
+                } catch (Throwable t) {
+                    workerFailure = t;
                 }
+                if (iterationBarrier.arriveAndAwaitAdvance() < 0) return;
+                if (separatePhases && iterationBarrier.arriveAndAwaitAdvance() < 0) return;
+
+                try {
+                    if (workerFailure == null) updateRows();
+                } catch (Throwable t) {
+                    workerFailure = t;
+                }
+                if (iterationBarrier.arriveAndAwaitAdvance() < 0) return;
             }
-            if (!notVisitedCities.isEmpty()) {
-                int index = localRandom.nextInt(notVisitedCities.size());
-                return notVisitedCities.get(index);
+        }
+
+        private void constructTours() {
+            constructTours(firstAnt, lastAnt);
+        }
+
+        private void constructTours(int firstAnt, int lastAnt) {
+            long best = Long.MAX_VALUE;
+            for (int a = firstAnt; a < lastAnt; a++) {
+                if (stopRequested()) break;
+                Ant ant = ants.get(a);
+                constructTour(ant, AntRandom.streamSeed(masterSeed, iterationNumber, a));
+                if (search != null) ant.trailImproved(search.improve(ant.trail));
+                antDeposits[a] = Q / ant.getTourLength();
+                best = Math.min(best, (long) ant.getTourLength() << 32 | a);
             }
+            // one atomic update per worker (leaf task) and iteration
+            iterationBest.accumulateAndGet(best, Math::min);
         }
 
-//        lock.lock();
-//        try {
-            double[] probabilities = calculateProbabilities(ant);
-            double randomValue = localRandom.nextDouble();
-            double total = 0;
-            for (int i = 0; i < numberOfCities; i++) {
-                total += probabilities[i];
-                if (total >= randomValue) {
-                    return i;
+        // Evaporates and deposits on the rows this worker owns. Every ant leaves each city exactly once,
+        // so a row receives one deposit per ant, added in ant order: the same sequence of operations per
+        // cell as the serial updateTrails, hence bit-identical results without any synchronization.
+        // MMAS deposits the iteration's best ant only and clamps the row; every worker derives the same
+        // bounds from boundLength and the reduced iteration best, both fixed before this phase.
+        private void updateRows() {
+            updateRows(firstRow, lastRow);
+        }
+
+        // Skipped once the run is stopping, as the trails will not be used again and the tours may be partial
+        private void updateRows(int firstRow, int lastRow) {
+            if (stopRequested()) return;
+            long best = iterationBest.get();
+            double trailMax = 0.0, trailMin = 0.0;
+            if (maxMin) {
+                trailMax = trailMax(Math.min(boundLength, best >>> 32));
+                trailMin = trailMin(trailMax);
+            }
+            for (int i = firstRow; i < lastRow; i++) {
+                trails.scaleRow(i, evaporation);
+                if (maxMin) {
+                    deposit(i, ants.get((int) best), antDeposits[(int) best]);
+                    trails.clampRow(i, trailMin, trailMax);
+                } else {
+                    for (int a = 0; a < numberOfAnts; a++)
+                        deposit(i, ants.get(a), antDeposits[a]);
                 }
+                computeChoiceInformation(i);
             }
+        }
 
+        // In symmetric storage edge {i, j} lives in row min(i, j), so row i takes the ant's edges to
+        // its successor and predecessor when those are above i
+        private void deposit(int i, Ant ant, double amount) {
+            int next = ant.successor(i);
+            if (!symmetric) {
+                trails.add(i, next, amount);
+                return;
+            }
+            if (next > i) trails.add(i, next, amount);
+            int previous = ant.predecessor(i);
+            if (previous > i) trails.add(i, previous, amount);
+        }
+
+        void constructTour(Ant ant, long seed) {
+            this.ant = ant;
+            random.reseed(seed);
+            ant.clear();
             for (int i = 0; i < numberOfCities; i++) {
-                if (!ant.visited(i)) {
-                    return i;
-                }
+                unvisited[i] = i;
+                unvisitedIndex[i] = i;
             }
-            throw new RuntimeException("There are no other cities");
-//        }finally {
-//            lock.unlock();
-//        }
-    }
-
-    private double[] calculateProbabilities(Ant ant) {
-        int i = ant.getCurrentCity();
-        double pheromone = 0.0;
-        for (int j = 0; j < numberOfCities; j++) {
-            if (i == j) continue;
-            if (!ant.visited(j)) {
-                pheromone += Math.pow(trails[i][j], alpha) * Math.pow(1.0 / graph[i][j], beta);
+            unvisitedCount = numberOfCities;
+
+            int firstCity = random.nextInt(numberOfCities);
+            ant.setFirstCity(firstCity);
+            markVisited(firstCity);
+            for (int i = 0; i < numberOfCities - 1; i++) {
+                int nextCity = selectNextCity();
+                ant.visitCity(nextCity, graph);
+                markVisited(nextCity);
             }
         }
 
-        double[] probabilities = new double[numberOfCities];
-        for (int j = 0; j < numberOfCities; j++) {
-            if (ant.visited(j) || j == i) {
-                probabilities[j] = 0.0;
-            } else {
-                double numerator = Math.pow(trails[i][j], alpha) * Math.pow(1.0 / graph[i][j], beta);
-                probabilities[j] = numerator / pheromone;
+        // O(1) swap-remove from the unvisited array
+        private void markVisited(int city) {
+            int index = unvisitedIndex[city];
+            int last = unvisited[--unvisitedCount];
+            unvisited[index] = last;
+            unvisitedIndex[last] = index;
+            unvisited[unvisitedCount] = city;
+            unvisitedIndex[city] = unvisitedCount;
+        }
 
+        private int selectNextCity() {
+            if (candidateLists != null) {
+                int next = selectFromCandidates();
+                if (next >= 0) return next;
             }
-        }
-        return probabilities;
-    }
 
-    private class AntWorker implements Runnable {
-        private final Ant ant;
+            if (random.nextDouble() < randomFactor) {
+                return unvisited[random.nextInt(unvisitedCount)];
+            }
 
-        public AntWorker(Ant ant) {
-            this.ant = ant;
+            cumulativeWeights();
+            return unvisited[Roulette.select(weights, unvisitedCount, random.nextDouble())];
         }
 
-        @Override
-        public void run() {
-            for (int i = 0; i < numberOfCities - 1; i++) {
-                int nextCity = selectNextCity(ant);
-                ant.visitCity(nextCity);
+        // Roulette over the unvisited candidates of the current city, -1 when all of them are visited
+        private int selectFromCandidates() {
+            int i = ant.getCurrentCity();
+            int[] candidates = candidateLists[i];
+            double total = 0.0;
+            int unvisitedCandidates = 0;
+            for (int city : candidates) {
+                if (!ant.visited(city)) {
+                    total += choiceInfo.get(i, city);
+                    unvisitedCandidates++;
+                }
             }
+            if (unvisitedCandidates == 0) return -1;
 
-            countDownLatch.countDown();
+            boolean explore = random.nextDouble() < randomFactor;
+            int target = explore ? random.nextInt(unvisitedCandidates) : -1;
+            double r = random.nextDouble() * total;
+            double cumulative = 0.0;
+            int last = -1;
+            for (int city : candidates) {
+                if (ant.visited(city)) continue;
+                last = city;
+                if (explore) {
+                    if (target-- == 0) return city;
+                    continue;
+                }
+                cumulative += choiceInfo.get(i, city);
+                if (cumulative >= r) return city;
+            }
+            return last;
+        }
 
+        // The wheel Roulette.select spins: unnormalized choiceInfo of the unvisited cities, summed up
+        private void cumulativeWeights() {
+            choiceInfo.gatherRow(ant.getCurrentCity(), unvisited, unvisitedCount, weights);
+            Roulette.prefixSums(weights, unvisitedCount);
         }
     }
 }
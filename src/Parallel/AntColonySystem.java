@@ -0,0 +1,372 @@
+package Parallel;
+
+import Matrix.*;
+import Search.Colonies;
+import Selection.Roulette;
+import Solver.PhaseTimes;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ant Colony System (Dorigo & Gambardella, 1997). With probability q0 an ant takes the most attractive
+// edge instead of spinning the roulette. Every edge it takes is pulled back toward tau0 (the local
+// update), and only the best tour so far deposits pheromone (the global update). The defaults are the
+// paper's: 10 ants, beta 2, q0 0.9, rho = xi = 0.1 and 15 nearest-neighbour candidates.
+//
+// Memory model of the local update: the workers build their ants' tours concurrently on one shared
+// pheromone array, without locks. Every cell is read and written with opaque access, so a value is never
+// torn and a worker sees its own writes in order, but nothing orders the writes of different workers.
+// Two ants updating the same edge at the same time can lose one of the two updates. Both write a convex
+// combination of tau0 and a value read earlier, so every cell stays between tau0 and the largest global
+// deposit whatever the interleaving. The global update runs on the calling thread between two phases of
+// the phaser, which orders it after every local update of the iteration and before those of the next.
+// Tours therefore depend on scheduling, and a seeded run is repeatable only with a single thread.
+public class AntColonySystem {
+    private static final VarHandle CELL = MethodHandles.arrayElementVarHandle(double[].class);
+
+    private long masterSeed = new SplittableRandom().nextLong();
+    private long iterationNumber; // iterations started in this run, part of every ant's stream seed
+    private double beta = 2;
+    private double q0 = 0.9;         // probability of the greedy move
+    private double rho = 0.1;        // share of pheromone the global update replaces on the best tour
+    private double xi = 0.1;         // share of pheromone the local update replaces with tau0
+    private double tau0;             // 1 / (n * nearest-neighbour tour length), the initial pheromone
+    private int maxIterations = 1000;
+    private boolean quiet;           // no per-run output
+    private int numberOfAnts;
+    private final int numberOfCities;
+    private final DistanceMatrix graph;
+    private final boolean symmetric; // edges share one pheromone cell, packed upper triangle
+    private final int[] rowBase;     // symmetric: rowBase[i] + j is the cell of (i, j), i <= j
+    private final double[] pheromone; // shared by the workers, accessed through CELL only
+    private WeightMatrix heuristic;  // eta^beta, fixed per graph, null for on-demand distances
+    private int[][] candidateLists;  // k nearest cities per city, null when the mode is off
+    private List<Ant> ants;
+    // shortest tour of the current iteration as (length << 32 | ant), min-reduced by the workers
+    private final AtomicLong iterationBest = new AtomicLong(Long.MAX_VALUE);
+
+    private int[] bestTourOrder;
+    private double bestTourLength;
+    // time spent per phase over all iterations so far
+    private long constructNanos;
+    private long updateBestNanos;
+    private long globalUpdateNanos;
+
+    private int numberOfThreads = 2;
+    private Phaser iterationBarrier;
+    private List<Thread> workerThreads;
+    private volatile Throwable workerFailure;
+
+    public AntColonySystem(DistanceMatrix graph) {
+        this.graph = graph;
+        this.numberOfCities = graph.size();
+        this.symmetric = graph.isSymmetric();
+        if (symmetric) {
+            rowBase = new int[numberOfCities];
+            long start = 0;
+            for (int i = 0; i < numberOfCities; i++) {
+                rowBase[i] = (int) (start - i);
+                start += numberOfCities - i;
+            }
+            pheromone = new double[Math.toIntExact(start)];
+        } else {
+            rowBase = null;
+            pheromone = new double[Math.multiplyExact(numberOfCities, numberOfCities)];
+        }
+        tau0 = 1.0 / ((double) numberOfCities * Colonies.nearestNeighbourTourLength(graph));
+        setNumberOfAnts(10);
+        setCandidateListSize(15);
+        computeHeuristic();
+    }
+
+    public void startAntOptimization() {
+        iterationNumber = 0;
+        startWorkers();
+        try {
+            initializeTrails();
+            for (int iteration = 0; iteration < maxIterations; iteration++)
+                iterate();
+        } finally {
+            stopWorkers();
+        }
+        if (quiet) return;
+        System.out.println("Best tour length: " + bestTourLength);
+        System.out.println("Best tour order: " + Arrays.toString(bestTourOrder));
+    }
+
+    // The phases below are package-private so benchmarks can drive the colony one iteration at a time;
+    // iterate and constructTours need the workers started
+
+    // Every cell back to tau0 and no best tour yet, since the global update deposits on it
+    void initializeTrails() {
+        Arrays.fill(pheromone, tau0);
+        bestTourOrder = null;
+    }
+
+    void iterate() {
+        long start = System.nanoTime();
+        constructTours();
+        long toursBuilt = System.nanoTime();
+        updateBest();
+        long bestUpdated = System.nanoTime();
+        globalUpdate();
+        constructNanos += toursBuilt - start;
+        updateBestNanos += bestUpdated - toursBuilt;
+        globalUpdateNanos += System.nanoTime() - bestUpdated;
+    }
+
+    // One phase releases the workers, the next one waits until every ant has a tour
+    void constructTours() {
+        iterationNumber++; // published to the workers by the phase advance
+        iterationBest.set(Long.MAX_VALUE);
+        iterationBarrier.arriveAndAwaitAdvance();
+        iterationBarrier.arriveAndAwaitAdvance();
+        Throwable failure = workerFailure;
+        if (failure != null)
+            throw new RuntimeException("Ant worker failed", failure);
+    }
+
+    void startWorkers() {
+        int threads = Math.max(1, Math.min(numberOfThreads, numberOfAnts));
+        iterationBarrier = new Phaser(threads + 1);
+        workerFailure = null;
+        workerThreads = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            AntWorker worker = new AntWorker(t * numberOfAnts / threads, (t + 1) * numberOfAnts / threads);
+            workerThreads.add(Thread.ofPlatform().daemon().name("acs-worker-" + t).start(worker));
+        }
+    }
+
+    void stopWorkers() {
+        iterationBarrier.forceTermination();
+        for (Thread thread : workerThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    void updateBest() {
+        long best = iterationBest.get();
+        int length = (int) (best >>> 32);
+        if (bestTourOrder == null || length < bestTourLength) {
+            bestTourLength = length;
+            bestTourOrder = ants.get((int) best).trail.clone();
+        }
+    }
+
+    // tau = (1 - rho) tau + rho / L on the edges of the best tour so far; the workers are parked
+    private void globalUpdate() {
+        double deposit = rho / bestTourLength;
+        for (int i = 0; i < numberOfCities; i++) {
+            int cell = cell(bestTourOrder[i], bestTourOrder[(i + 1) % numberOfCities]);
+            setPheromone(cell, (1 - rho) * pheromone(cell) + deposit);
+        }
+    }
+
+    private int cell(int i, int j) {
+        if (!symmetric) return i * numberOfCities + j;
+        return i <= j ? rowBase[i] + j : rowBase[j] + i;
+    }
+
+    private double pheromone(int cell) {
+        return (double) CELL.getOpaque(pheromone, cell);
+    }
+
+    private void setPheromone(int cell, double value) {
+        CELL.setOpaque(pheromone, cell, value);
+    }
+
+    // eta^beta is cached only for materialized graphs, on-demand distances keep computing it per move
+    private void computeHeuristic() {
+        if (!graph.isMaterialized()) {
+            heuristic = null;
+            return;
+        }
+        heuristic = symmetric ? new TriangularWeightMatrix(numberOfCities) : new DoubleWeightMatrix(numberOfCities);
+        for (int i = 0; i < numberOfCities; i++)
+            for (int j = heuristic.firstColumn(i); j < numberOfCities; j++)
+                heuristic.set(i, j, heuristic(i, j));
+    }
+
+    // coincident cities count as distance 1, so their heuristic stays finite
+    private double heuristic(int i, int j) {
+        return i == j ? 0.0 : Math.pow(1.0 / Math.max(graph.get(i, j), 1), beta);
+    }
+
+    // ACS works with few ants, 10 unless set otherwise
+    public void setNumberOfAnts(int numberOfAnts) {
+        this.numberOfAnts = numberOfAnts;
+        ants = new ArrayList<>(numberOfAnts);
+        for (int i = 0; i < numberOfAnts; i++)
+            ants.add(new Ant(numberOfCities));
+    }
+
+    public void setThreads(int nThreads) {
+        this.numberOfThreads = nThreads;
+    }
+
+    public void setBeta(double beta) {
+        this.beta = beta;
+        computeHeuristic();
+    }
+
+    // probability of moving to the most attractive unvisited candidate instead of a roulette draw
+    public void setQ0(double q0) {
+        this.q0 = q0;
+    }
+
+    // share of pheromone the global update replaces with 1 / best length on the best tour's edges
+    public void setRho(double rho) {
+        this.rho = rho;
+    }
+
+    // share of pheromone the local update replaces with tau0 on every edge an ant takes
+    public void setXi(double xi) {
+        this.xi = xi;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    // Master seed of the per-ant random streams; runs repeat exactly only with one thread, see above
+    public void setSeed(long seed) {
+        this.masterSeed = seed;
+    }
+
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    // k > 0 restricts selection to the k nearest cities (full scan once they are all visited), k = 0 disables it
+    public void setCandidateListSize(int k) {
+        candidateLists = k > 0 ? Colonies.nearestNeighbours(graph, Math.min(k, numberOfCities - 1)) : null;
+    }
+
+    public double getBestTourLength() {
+        return bestTourLength;
+    }
+
+    public int[] getBestTourOrder() {
+        return bestTourOrder == null ? null : bestTourOrder.clone();
+    }
+
+    public int getNumberOfCities() {
+        return numberOfCities;
+    }
+
+    // trailUpdateNanos is the time spent in the global update
+    public PhaseTimes getPhaseTimes() {
+        return new PhaseTimes(constructNanos, updateBestNanos, globalUpdateNanos);
+    }
+
+    private class AntWorker implements Runnable {
+        private final int firstAnt;
+        private final int lastAnt; // exclusive
+        private Ant ant;           // ant whose tour is being built
+        private final AntRandom random = new AntRandom();
+        private final int[] cities;      // cities the next move chooses from
+        private final double[] weights;  // running totals of their attractiveness
+
+        AntWorker(int firstAnt, int lastAnt) {
+            this.firstAnt = firstAnt;
+            this.lastAnt = lastAnt;
+            this.cities = new int[numberOfCities];
+            this.weights = new double[numberOfCities];
+        }
+
+        @Override
+        public void run() {
+            while (iterationBarrier.arriveAndAwaitAdvance() >= 0) {
+                try {
+                    constructTours();
+                } catch (Throwable t) {
+                    workerFailure = t;
+                }
+                if (iterationBarrier.arriveAndAwaitAdvance() < 0) return;
+            }
+        }
+
+        private void constructTours() {
+            long best = Long.MAX_VALUE;
+            for (int a = firstAnt; a < lastAnt; a++) {
+                Ant ant = ants.get(a);
+                constructTour(ant, AntRandom.streamSeed(masterSeed, iterationNumber, a));
+                best = Math.min(best, (long) ant.getTourLength() << 32 | a);
+            }
+            iterationBest.accumulateAndGet(best, Math::min);
+        }
+
+        // Tour by tour rather than the paper's step by step: each move, the closing one included,
+        // applies the local update before the next move is chosen
+        private void constructTour(Ant ant, long seed) {
+            this.ant = ant;
+            random.reseed(seed);
+            ant.clear();
+            int firstCity = random.nextInt(numberOfCities);
+            ant.setFirstCity(firstCity);
+            for (int i = 0; i < numberOfCities - 1; i++) {
+                int nextCity = selectNextCity();
+                localUpdate(ant.getCurrentCity(), nextCity);
+                ant.visitCity(nextCity, graph);
+            }
+            localUpdate(ant.getCurrentCity(), firstCity);
+        }
+
+        private void localUpdate(int i, int j) {
+            int cell = cell(i, j);
+            setPheromone(cell, (1 - xi) * pheromone(cell) + xi * tau0);
+        }
+
+        // Pseudo-random-proportional rule over the unvisited candidates, or over every unvisited city
+        // once the candidates are used up
+        private int selectNextCity() {
+            int i = ant.getCurrentCity();
+            boolean exploit = random.nextDouble() < q0;
+            int count = 0;
+            if (candidateLists != null) {
+                for (int city : candidateLists[i])
+                    if (!ant.visited(city)) cities[count++] = city;
+            }
+            if (count == 0) count = unvisitedCities();
+
+            if (exploit) {
+                int best = cities[0];
+                double bestWeight = attractiveness(i, best);
+                for (int k = 1; k < count; k++) {
+                    double weight = attractiveness(i, cities[k]);
+                    if (weight > bestWeight) {
+                        best = cities[k];
+                        bestWeight = weight;
+                    }
+                }
+                return best;
+            }
+            for (int k = 0; k < count; k++)
+                weights[k] = attractiveness(i, cities[k]);
+            Roulette.prefixSums(weights, count);
+            return cities[Roulette.select(weights, count, random.nextDouble())];
+        }
+
+        private double attractiveness(int i, int j) {
+            return pheromone(cell(i, j)) * (heuristic != null ? heuristic.get(i, j) : heuristic(i, j));
+        }
+
+        private int unvisitedCities() {
+            long[] unvisited = ant.getUnvisited();
+            int count = 0;
+            for (int w = 0; w < unvisited.length; w++) {
+                for (long bits = unvisited[w]; bits != 0; bits &= bits - 1)
+                    cities[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            return count;
+        }
+    }
+}
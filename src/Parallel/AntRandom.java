@@ -0,0 +1,36 @@
+package Parallel;
+
+import java.util.random.RandomGenerator;
+
+// SplitMix64 generator an AntWorker reseeds before every tour, so each ant draws from its own stream in
+// each iteration, derived from the master seed alone and not from which worker builds the tour.
+// Unlike SplittableRandom it can be reseeded in place, keeping tour construction allocation-free.
+final class AntRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private long state;
+
+    void reseed(long seed) {
+        state = seed;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    // Seed of the stream of one ant in one iteration of a run
+    static long streamSeed(long masterSeed, long iteration, int ant) {
+        return mix64(mix64(masterSeed + iteration * GOLDEN_GAMMA) + (ant + 1L) * GOLDEN_GAMMA);
+    }
+
+    // Master seed of one island, so islands of a seeded run are reproducible and mutually independent
+    static long islandSeed(long masterSeed, int island) {
+        return mix64(mix64(masterSeed) ^ (island + 1L) * GOLDEN_GAMMA);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,10 +1,26 @@
 package Parallel;
 
+import Instance.CoordinateInstance;
+import Instance.RandomInstance;
+import Matrix.DistanceMatrix;
+import Search.Colonies;
+import Search.LocalSearch;
+import Solver.Parameters;
+import Solver.Result;
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
 public class Main {
+    private static final double TARGET_RATIO = 0.95; // time-to-target: 5% shorter than the nearest-neighbour tour
+
     public static void main(String[] args) {
         int numCities = 100;
         manualTesting(numCities);
@@ -12,14 +28,15 @@ public class Main {
 
     public static void manualTesting(int noOfCities) {
         int minDistance = 20, maxDistance = 100;
-        AntColonyOptimization aco = new AntColonyOptimization(noOfCities, minDistance, maxDistance);
-        int naive = aco.naiveSolution();
-        aco.prettyPrint();
-        aco.setThreads(12);
-        long startTime = System.currentTimeMillis();
-        aco.startAntOptimization();
-
-        System.out.println("Global time: " + (System.currentTimeMillis() - startTime) + " ms");
+        DistanceMatrix graph = RandomInstance.generate(noOfCities, minDistance, maxDistance, false, new Random());
+        int naive = IntStream.range(0, noOfCities).map(j -> graph.get(0, j)).sum();
+        AntColonyOptimization.prettyPrint(graph);
+        Result result = new ParallelSolver(Parameters.builder().threads(12).build()).solve(graph);
+
+        System.out.println("Best tour length: " + result.bestLength());
+        System.out.println("Best tour order: " + Arrays.toString(result.bestTour()));
+        System.out.println("Found after " + result.iterationsToBest() + " of " + result.iterations() + " iterations");
+        System.out.println("Global time: " + result.elapsedNanos() / 1_000_000 + " ms");
         System.out.println("Naive solution: " + naive);
     }
 
@@ -31,17 +48,13 @@ public class Main {
         int cycles = 20;
 
         long[] results = new long[cycles];
+        ParallelSolver solver = new ParallelSolver(Parameters.builder().threads(threadsCount).build());
         System.out.println("Start time: " + LocalDateTime.now());
         System.out.print("Parallel with \n cities: " + Arrays.toString(citySizes) +'\n');
         for (int noOfCities : citySizes) {
             for (int i = 0; i < cycles; i++) {
-                AntColonyOptimization aco = new AntColonyOptimization(noOfCities, minDistance, maxDistance);
-                aco.setThreads(threadsCount);
-
-                long startTime = System.currentTimeMillis();
-                aco.startAntOptimization();
-                long endTime = System.currentTimeMillis();
-                long elapsedTime = endTime - startTime;
+                DistanceMatrix graph = RandomInstance.generate(noOfCities, minDistance, maxDistance, false, new Random());
+                long elapsedTime = solver.solve(graph).elapsedNanos() / 1_000_000;
 
                 if (i > 0){
                     results[i - 1] = elapsedTime;
@@ -55,4 +68,382 @@ public class Main {
         System.out.println("End time:" + LocalDateTime.now());
 
     }
-}
\ No newline at end of file
+
+    // Attempts one after another on the workers versus concurrently as islands, with and without migration
+    public static void islandBenchmark() {
+        int[] citySizes = {50, 75, 100};
+        int threads = Runtime.getRuntime().availableProcessors();
+        int attempts = 20, cycles = 5;
+        long seed = 42;
+
+        for (int noOfCities : citySizes) {
+            DistanceMatrix graph = RandomInstance.generate(noOfCities, 20, 100, false, new Random(seed));
+            for (int migration : new int[]{-1, 0, 25}) {
+                long[] results = new long[cycles];
+                double length = 0;
+                for (int i = 0; i < cycles; i++) {
+                    Parameters parameters = Parameters.builder()
+                            .threads(threads)
+                            .attempts(attempts)
+                            .islandMode(migration >= 0)
+                            .migrationInterval(Math.max(migration, 0))
+                            .seed(seed + i)
+                            .build();
+                    Result result = new ParallelSolver(parameters).solve(graph);
+                    results[i] = result.elapsedNanos();
+                    length += result.bestLength();
+                }
+                String mode = migration < 0 ? "sequential attempts" : migration == 0 ? "islands" : "islands, migration every " + migration;
+                // the first cycle is warm-up
+                System.out.printf("Cities: %d, threads: %d, %s: avg time %d ms, avg best length %.1f%n", noOfCities, threads, mode,
+                        LongStream.of(results).skip(1).sum() / (cycles - 1) / 1_000_000, length / cycles);
+            }
+        }
+    }
+
+    // Time to target quality, Ant System against Ant Colony System on the same instance and thread count.
+    // The target is TARGET_RATIO times the nearest-neighbour tour length; each engine is timed until its
+    // best tour first gets there. The Ant System runs 200 iterations; the ACS runs on to the Ant System's
+    // run time, for the best length at equal time, and gives up on the target after ten times that.
+    public static void acsTimeToTarget() {
+        int[] citySizes = {100, 200, 500};
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 42;
+
+        for (boolean euclidean : new boolean[]{false, true}) {
+            for (int noOfCities : citySizes) {
+                DistanceMatrix graph = euclidean ? randomPoints(noOfCities, new Random(seed))
+                        : RandomInstance.generate(noOfCities, 20, 100, false, new Random(seed));
+
+                Baseline as = antSystemBaseline(graph, threads, seed);
+                double target = as.target();
+                long asRun = as.runNanos();
+
+                AntColonySystem acs = new AntColonySystem(graph);
+                acs.setThreads(threads);
+                acs.setSeed(seed);
+                long acsReached = -1;
+                double equalTimeLength;
+                acs.startWorkers();
+                try {
+                    acs.initializeTrails();
+                    long start = System.nanoTime();
+                    long elapsed = 0;
+                    while (elapsed < asRun) {
+                        acs.iterate();
+                        elapsed = System.nanoTime() - start;
+                        if (acsReached < 0 && acs.getBestTourLength() <= target) acsReached = elapsed;
+                    }
+                    equalTimeLength = acs.getBestTourLength();
+                    while (acsReached < 0 && elapsed < 10 * asRun) {
+                        acs.iterate();
+                        elapsed = System.nanoTime() - start;
+                        if (acs.getBestTourLength() <= target) acsReached = elapsed;
+                    }
+                } finally {
+                    acs.stopWorkers();
+                }
+
+                System.out.printf("%s, cities: %d, threads: %d, target %.0f: Ant System %s, best %.0f in a %d ms run,"
+                                + " ACS %s, ACS best in %d ms: %.0f%n",
+                        euclidean ? "Euclidean" : "Random matrix", noOfCities, threads, target, reached(as.reachedNanos()),
+                        as.bestLength(), asRun / 1_000_000, reached(acsReached), asRun / 1_000_000, equalTimeLength);
+            }
+        }
+    }
+
+    // Ant System against MAX-MIN Ant System with the same iteration budget and no random moves: best length,
+    // wall time and, for MMAS, the stagnation restarts. MMAS keeps 90% of the pheromone per iteration and
+    // stops early once its restarts no longer find better tours.
+    public static void maxMinBenchmark() {
+        int[] citySizes = {100, 200};
+        int threads = Runtime.getRuntime().availableProcessors();
+        int iterations = 2000;
+        long seed = 42;
+
+        for (boolean euclidean : new boolean[]{false, true}) {
+            for (int noOfCities : citySizes) {
+                DistanceMatrix graph = euclidean ? randomPoints(noOfCities, new Random(seed))
+                        : RandomInstance.generate(noOfCities, 20, 100, false, new Random(seed));
+                for (boolean maxMin : new boolean[]{false, true}) {
+                    Parameters parameters = Parameters.builder()
+                            .threads(threads)
+                            .attempts(1)
+                            .maxIterations(iterations)
+                            .seed(seed)
+                            .randomFactor(0)
+                            .maxMin(maxMin)
+                            .evaporation(maxMin ? 0.9 : 0.5)
+                            .build();
+                    Result result = new ParallelSolver(parameters).solve(graph);
+                    System.out.printf("%s, cities: %d, threads: %d, %s: best length %.0f in %d ms%s%n",
+                            euclidean ? "Euclidean" : "Random matrix", noOfCities, threads,
+                            maxMin ? "MAX-MIN" : "Ant System", result.bestLength(), result.elapsedNanos() / 1_000_000,
+                            maxMin ? ", restarts: " + result.restarts() : "");
+                }
+            }
+        }
+    }
+
+    // Time to target quality with and without the local-search stage (2-opt and Or-opt; Or-opt alone on the
+    // asymmetric random matrices). The target and the plain Ant System run are those of acsTimeToTarget;
+    // the colony with local search is timed until it gets there, then runs on to the plain run's time for
+    // the best length at equal time.
+    public static void localSearchTimeToTarget() {
+        int[] citySizes = {100, 200, 500};
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 42;
+
+        for (boolean euclidean : new boolean[]{false, true}) {
+            for (int noOfCities : citySizes) {
+                DistanceMatrix graph = euclidean ? randomPoints(noOfCities, new Random(seed))
+                        : RandomInstance.generate(noOfCities, 20, 100, false, new Random(seed));
+
+                Baseline plain = antSystemBaseline(graph, threads, seed);
+                double target = plain.target();
+                long plainRun = plain.runNanos();
+
+                AntColonyOptimization searched = new AntColonyOptimization(graph);
+                searched.setThreads(threads);
+                searched.setSeed(seed);
+                searched.setLocalSearch(LocalSearch.twoOptOrOpt());
+                long searchedReached = -1;
+                int iterations = 0;
+                searched.startWorkers();
+                try {
+                    searched.initializeTrails();
+                    long start = System.nanoTime();
+                    long elapsed = 0;
+                    while (elapsed < plainRun) {
+                        searched.iterate();
+                        iterations++;
+                        elapsed = System.nanoTime() - start;
+                        if (searchedReached < 0 && searched.getBestTourLength() <= target) searchedReached = elapsed;
+                    }
+                } finally {
+                    searched.stopWorkers();
+                }
+
+                System.out.printf("%s, cities: %d, threads: %d, target %.0f: Ant System %s, best %.0f in a %d ms run,"
+                                + " with local search %s, best in %d ms (%d iterations): %.0f%n",
+                        euclidean ? "Euclidean" : "Random matrix", noOfCities, threads, target,
+                        reached(plain.reachedNanos()), plain.bestLength(), plainRun / 1_000_000,
+                        reached(searchedReached), plainRun / 1_000_000, iterations, searched.getBestTourLength());
+            }
+        }
+    }
+
+    // Plain Ant System run the time-to-target harnesses measure against: the target, when 200 iterations
+    // first got there (-1 if they did not), how long they took and their best length
+    private record Baseline(double target, long reachedNanos, long runNanos, double bestLength) {
+    }
+
+    private static Baseline antSystemBaseline(DistanceMatrix graph, int threads, long seed) {
+        double target = TARGET_RATIO * Colonies.nearestNeighbourTourLength(graph);
+        AntColonyOptimization as = new AntColonyOptimization(graph);
+        as.setThreads(threads);
+        as.setSeed(seed);
+        long reached = -1;
+        as.startWorkers();
+        try {
+            as.initializeTrails();
+            long start = System.nanoTime();
+            for (int iteration = 0; iteration < 200; iteration++) {
+                as.iterate();
+                if (reached < 0 && as.getBestTourLength() <= target) reached = System.nanoTime() - start;
+            }
+            return new Baseline(target, reached, System.nanoTime() - start, as.getBestTourLength());
+        } finally {
+            as.stopWorkers();
+        }
+    }
+
+    private static String reached(long nanos) {
+        return nanos < 0 ? "not reached" : nanos / 1_000_000 + " ms";
+    }
+
+    // Fixed worker ranges against work stealing, with tour costs made uneven by random moves and local
+    // search: average iteration time over a few seeded runs at 1, 2, 4, ... up to all cores
+    public static void schedulerBenchmark() {
+        int[] citySizes = {50, 200};
+        int cores = Runtime.getRuntime().availableProcessors();
+        int iterations = 50, cycles = 5;
+        long seed = 42;
+
+        for (int noOfCities : citySizes) {
+            DistanceMatrix graph = randomPoints(noOfCities, new Random(seed));
+            for (int threads = 1; threads <= cores; threads = threads < cores ? Math.min(2 * threads, cores) : cores + 1) {
+                for (boolean workStealing : new boolean[]{false, true}) {
+                    long[] results = new long[cycles];
+                    for (int i = 0; i < cycles; i++) {
+                        Parameters parameters = Parameters.builder()
+                                .threads(threads)
+                                .workStealing(workStealing)
+                                .localSearch(LocalSearch.twoOptOrOpt())
+                                .attempts(1)
+                                .maxIterations(iterations)
+                                .seed(seed + i)
+                                .build();
+                        results[i] = new ParallelSolver(parameters).solve(graph).elapsedNanos();
+                    }
+                    // the first cycle is warm-up
+                    System.out.printf("Cities: %d, threads: %d, %s: avg %d us per iteration%n", noOfCities, threads,
+                            workStealing ? "work stealing" : "fixed ranges",
+                            LongStream.of(results).skip(1).sum() / (cycles - 1) / iterations / 1_000);
+                }
+            }
+        }
+    }
+
+    // A burst of small instances (20-80 cities) solved at once: every request starting its own workers on
+    // platform threads, against MultiTenantSolver's single-threaded colonies on virtual threads. Prints the
+    // throughput and the median and worst latency; both modes must find the same tours.
+    public static void multiTenantBenchmark() throws InterruptedException {
+        int requests = 64;
+        int cores = Runtime.getRuntime().availableProcessors();
+        long seed = 42;
+        Random random = new Random(seed);
+        List<DistanceMatrix> instances = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++)
+            instances.add(RandomInstance.generate(20 + random.nextInt(61), 20, 100, false, random));
+        Parameters parameters = Parameters.builder().attempts(2).maxIterations(100).threads(cores).seed(seed).build();
+        ParallelSolver solver = new ParallelSolver(parameters);
+
+        for (int cycle = 0; cycle < 3; cycle++) { // the first cycle is warm-up
+            Result[] pooled = new Result[requests];
+            long[] latencies = new long[requests];
+            List<Thread> threads = new ArrayList<>(requests);
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    pooled[request] = solver.solve(instances.get(request));
+                    latencies[request] = System.nanoTime() - start;
+                }));
+            }
+            for (Thread thread : threads) thread.join();
+            long pooledElapsed = System.nanoTime() - start;
+
+            MultiTenantSolver.Batch batch = new MultiTenantSolver(4 * cores, parameters).solveAll(instances);
+            long[] tenantLatencies = batch.solutions().stream().mapToLong(MultiTenantSolver.Solution::latencyNanos).toArray();
+            boolean sameTours = true;
+            for (int i = 0; i < requests; i++)
+                sameTours &= Arrays.equals(pooled[i].bestTour(), batch.solutions().get(i).result().bestTour());
+
+            System.out.printf("%d requests, %d cores: own workers %.1f instances/s (latency median %d ms, max %d ms),"
+                            + " multi-tenant %.1f instances/s (latency median %d ms, max %d ms), same tours: %b%n",
+                    requests, cores, requests * 1e9 / pooledElapsed, median(latencies) / 1_000_000,
+                    LongStream.of(latencies).max().orElse(0) / 1_000_000, batch.instancesPerSecond(),
+                    median(tenantLatencies) / 1_000_000, LongStream.of(tenantLatencies).max().orElse(0) / 1_000_000,
+                    sameTours);
+            if (!sameTours) throw new IllegalStateException("Multi-tenant colonies built different tours");
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static DistanceMatrix randomPoints(int noOfCities, Random random) {
+        double[] x = new double[noOfCities], y = new double[noOfCities];
+        for (int i = 0; i < noOfCities; i++) {
+            x[i] = random.nextDouble(10_000);
+            y[i] = random.nextDouble(10_000);
+        }
+        return new CoordinateInstance(x, y);
+    }
+
+    // Steady-state tour construction must not allocate: measures heap bytes allocated by the calling thread
+    public static void allocationCheck() {
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int[] citySizes = {100, 200};
+        int[] candidateSizes = {0, 10};
+        int minDistance = 20, maxDistance = 100;
+        int warmUpTours = 2_000, measuredTours = 500;
+
+        for (int noOfCities : citySizes) {
+            for (int k : candidateSizes) {
+                AntColonyOptimization aco = new AntColonyOptimization(noOfCities, minDistance, maxDistance);
+                aco.setCandidateListSize(k);
+                Runnable tour = aco.singleAntTour();
+                for (int i = 0; i < warmUpTours; i++) tour.run();
+
+                long before = threadBean.getCurrentThreadAllocatedBytes();
+                for (int i = 0; i < measuredTours; i++) tour.run();
+                long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+
+                System.out.printf("Cities: %d, candidates: %d, allocated: %d bytes over %d tours%n",
+                        noOfCities, k, allocated, measuredTours);
+                if (allocated > 0)
+                    throw new IllegalStateException("Tour construction allocated " + allocated + " bytes");
+            }
+        }
+    }
+
+    // A seeded run must build the same tours whatever the thread count and scheduler, so it ends with the
+    // same best tour
+    public static void seededRunCheck() {
+        int[] threadCounts = {1, 2, 8, 16};
+        long seed = 42;
+
+        for (boolean symmetric : new boolean[]{false, true}) {
+            for (int k : new int[]{0, 10}) {
+                DistanceMatrix graph = RandomInstance.generate(60, 20, 100, symmetric, new Random(seed));
+                int[] expectedTour = null;
+                double expectedLength = 0;
+                for (boolean workStealing : new boolean[]{false, true}) {
+                    for (int threads : threadCounts) {
+                        Parameters parameters = Parameters.builder()
+                                .candidateListSize(k)
+                                .attempts(2)
+                                .maxIterations(30)
+                                .threads(threads)
+                                .workStealing(workStealing)
+                                .seed(seed)
+                                .build();
+                        Result result = new ParallelSolver(parameters).solve(graph);
+
+                        System.out.printf("Symmetric: %b, candidates: %d, threads: %d, work stealing: %b, best length: %.0f%n",
+                                symmetric, k, threads, workStealing, result.bestLength());
+                        if (expectedTour == null) {
+                            expectedTour = result.bestTour();
+                            expectedLength = result.bestLength();
+                        } else if (result.bestLength() != expectedLength || !Arrays.equals(result.bestTour(), expectedTour)) {
+                            throw new IllegalStateException("Seeded run with " + threads + " threads"
+                                    + (workStealing ? ", work stealing," : "") + " diverged from the single-threaded one");
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // The parallel pheromone update must reproduce the serial one exactly, whatever the thread count and scheduler
+    public static void trailUpdateCheck() {
+        int[] citySizes = {50, 101, 200};
+        int[] threadCounts = {1, 2, 3, 8};
+        int minDistance = 20, maxDistance = 100;
+
+        for (boolean workStealing : new boolean[]{false, true}) {
+            for (boolean maxMin : new boolean[]{false, true}) {
+                for (boolean symmetric : new boolean[]{false, true}) {
+                    for (int noOfCities : citySizes) {
+                        for (int threads : threadCounts) {
+                            AntColonyOptimization aco = new AntColonyOptimization(noOfCities, minDistance, maxDistance, symmetric);
+                            aco.setThreads(threads);
+                            aco.setMaxMin(maxMin);
+                            aco.setWorkStealing(workStealing);
+                            boolean identical = aco.trailUpdateMatchesSerial(5);
+                            System.out.printf("Cities: %d, threads: %d, symmetric: %b, max-min: %b, work stealing: %b,"
+                                    + " identical to serial: %b%n", noOfCities, threads, symmetric, maxMin, workStealing, identical);
+                            if (!identical)
+                                throw new IllegalStateException("Parallel trail update diverged from the serial one");
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
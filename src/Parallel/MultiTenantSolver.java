@@ -0,0 +1,68 @@
+package Parallel;
+
+import Matrix.DistanceMatrix;
+import Solver.Parameters;
+import Solver.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.StructuredTaskScope;
+
+// Many small instances solved at once, e.g. the requests a service receives together. Every instance gets
+// a single-threaded colony on its own virtual thread, so the colonies share the JVM's carrier pool (one
+// carrier per core, jdk.virtualThreadScheduler.parallelism) instead of each starting its own workers.
+// Fairness: at most maxColonies colonies hold trails at a time, admitted in arrival order, and each yields
+// its carrier after every iteration, so a large instance delays the small ones by one iteration at a time
+// rather than by its whole run.
+public class MultiTenantSolver {
+    private final Semaphore admission;
+    private final Parameters parameters;
+
+    // Every colony is configured by parameters, except that it runs single-threaded and without islands
+    public MultiTenantSolver(int maxColonies, Parameters parameters) {
+        if (maxColonies < 1) throw new IllegalArgumentException("maxColonies must be at least 1");
+        this.admission = new Semaphore(maxColonies, true);
+        this.parameters = parameters;
+    }
+
+    // Solves every instance, results in instance order; the first failure cancels the rest and is rethrown
+    public Batch solveAll(List<DistanceMatrix> instances) throws InterruptedException {
+        long start = System.nanoTime();
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure("aco-tenants",
+                Thread.ofVirtual().name("aco-tenant-", 0).factory())) {
+            List<StructuredTaskScope.Subtask<Solution>> tasks = new ArrayList<>(instances.size());
+            for (DistanceMatrix graph : instances)
+                tasks.add(scope.fork(() -> solve(graph, start)));
+            scope.join().throwIfFailed(failure -> new RuntimeException("Colony failed", failure));
+
+            List<Solution> solutions = new ArrayList<>(tasks.size());
+            for (StructuredTaskScope.Subtask<Solution> task : tasks)
+                solutions.add(task.get());
+            return new Batch(solutions, System.nanoTime() - start);
+        }
+    }
+
+    private Solution solve(DistanceMatrix graph, long submitted) throws InterruptedException {
+        admission.acquire();
+        try {
+            long admitted = System.nanoTime();
+            AntColonyOptimization colony = new AntColonyOptimization(graph, parameters);
+            colony.solveAsTenant();
+            long done = System.nanoTime();
+            return new Solution(colony.result(done - admitted), admitted - submitted, done - submitted);
+        } finally {
+            admission.release();
+        }
+    }
+
+    // waitNanos: from the batch's start until the colony was admitted; latencyNanos: until it finished
+    public record Solution(Result result, long waitNanos, long latencyNanos) {
+    }
+
+    public record Batch(List<Solution> solutions, long elapsedNanos) {
+        public double instancesPerSecond() {
+            return solutions.size() * 1e9 / elapsedNanos;
+        }
+    }
+}
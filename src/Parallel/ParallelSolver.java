@@ -0,0 +1,41 @@
+package Parallel;
+
+import Matrix.DistanceMatrix;
+import Solver.Parameters;
+import Solver.Result;
+import Solver.Run;
+import Solver.TspSolver;
+
+import java.util.Objects;
+
+// The parallel Ant System as a library: every solve runs a fresh, quiet colony with its own workers (or
+// islands), so a solver holds no state between calls and may be shared between threads
+public final class ParallelSolver implements TspSolver {
+    private final Parameters parameters;
+
+    public ParallelSolver(Parameters parameters) {
+        this.parameters = Objects.requireNonNull(parameters);
+    }
+
+    @Override
+    public Result solve(DistanceMatrix instance) {
+        return run(new AntColonyOptimization(instance, parameters));
+    }
+
+    @Override
+    public Run start(DistanceMatrix instance) {
+        AntColonyOptimization colony = new AntColonyOptimization(instance, parameters);
+        return Run.start("aco-run", colony::getIncumbent, colony::cancel, () -> run(colony));
+    }
+
+    private static Result run(AntColonyOptimization colony) {
+        long start = System.nanoTime();
+        colony.startAntOptimization();
+        return colony.result(System.nanoTime() - start);
+    }
+
+    @Override
+    public Parameters parameters() {
+        return parameters;
+    }
+}
@@ -0,0 +1,90 @@
+package Search;
+
+import Matrix.DistanceMatrix;
+import Matrix.WeightMatrix;
+
+// Helpers the colony engines of both packages share, Ant System and Ant Colony System alike
+public final class Colonies {
+    private static final double BRANCHING_LAMBDA = 0.05;
+    private static final double BRANCHING_SLACK = 0.05;
+
+    private Colonies() {
+    }
+
+    // The k nearest cities of every city, closest first: candidate lists and local-search neighbours
+    public static int[][] nearestNeighbours(DistanceMatrix graph, int k) {
+        int n = graph.size();
+        int[][] lists = new int[n][k];
+        for (int i = 0; i < n; i++) {
+            int[] list = lists[i];
+            int size = 0;
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                int distance = graph.get(i, j);
+                if (size == k && distance >= graph.get(i, list[k - 1])) continue;
+                int pos = size < k ? size++ : k - 1;
+                while (pos > 0 && graph.get(i, list[pos - 1]) > distance) {
+                    list[pos] = list[pos - 1];
+                    pos--;
+                }
+                list[pos] = j;
+            }
+        }
+        return lists;
+    }
+
+    // Length of the greedy tour from city 0
+    public static long nearestNeighbourTourLength(DistanceMatrix graph) {
+        int n = graph.size();
+        boolean[] visited = new boolean[n];
+        int current = 0;
+        visited[0] = true;
+        long length = 0;
+        for (int step = 1; step < n; step++) {
+            int next = -1;
+            for (int j = 0; j < n; j++)
+                if (!visited[j] && (next < 0 || graph.get(current, j) < graph.get(current, next))) next = j;
+            length += graph.get(current, next);
+            visited[next] = true;
+            current = next;
+        }
+        return Math.max(1, length + graph.get(current, 0));
+    }
+
+    // MMAS tau_max = q / ((1 - evaporation) L), the limit of a trail the best tour reinforces every iteration
+    // (evaporation being the share kept)
+    public static double trailMax(double q, double evaporation, double bestLength) {
+        return q / ((1 - evaporation) * bestLength);
+    }
+
+    // MMAS tau_min, from the probability pBest of building the best tour once converged (Stuetzle & Hoos)
+    public static double trailMin(double trailMax, double pBest, int cities) {
+        double root = Math.pow(pBest, 1.0 / cities);
+        return trailMax * (1 - root) / (Math.max(cities / 2.0 - 1, 1) * root);
+    }
+
+    // MMAS stagnation: the mean lambda-branching factor is down to 2 (1 for asymmetric trails), the value
+    // once every ant builds the same tour
+    public static boolean stagnated(WeightMatrix trails, boolean symmetric) {
+        return branchingFactor(trails) <= (symmetric ? 2 : 1) + BRANCHING_SLACK;
+    }
+
+    // Per city, the number of edges whose trail lies in the top (1 - lambda) of that city's range
+    static double branchingFactor(WeightMatrix trails) {
+        int n = trails.size();
+        long branches = 0;
+        for (int i = 0; i < n; i++) {
+            double min = Double.MAX_VALUE, max = 0.0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                double trail = trails.get(i, j);
+                min = Math.min(min, trail);
+                max = Math.max(max, trail);
+            }
+            double threshold = min + BRANCHING_LAMBDA * (max - min);
+            for (int j = 0; j < n; j++)
+                if (j != i && trails.get(i, j) >= threshold) branches++;
+        }
+        return (double) branches / n;
+    }
+}
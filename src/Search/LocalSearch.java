@@ -0,0 +1,28 @@
+package Search;
+
+import Matrix.DistanceMatrix;
+
+// Local-search stage between tour construction and the trail update: improves an ant's tour in place.
+// Implementations keep scratch state such as a position index and don't-look bits, so every thread
+// needs its own instance; the engines create them through a Factory, one per AntWorker in Parallel.
+public interface LocalSearch {
+    // Improves the closed tour, a permutation of the cities, in place; returns how much shorter it got
+    long improve(int[] tour);
+
+    @FunctionalInterface
+    interface Factory {
+        // neighbours[i] lists the cities closest to i, nearest first
+        LocalSearch create(DistanceMatrix graph, int[][] neighbours);
+    }
+
+    // 2-opt on symmetric instances, nothing on asymmetric ones, where a reversal changes every edge it spans
+    static Factory twoOpt() {
+        return (graph, neighbours) -> new TwoOpt(graph, neighbours, false);
+    }
+
+    // 2-opt on symmetric instances plus Or-opt segment moves, which keep their direction and so also
+    // work on asymmetric ones
+    static Factory twoOptOrOpt() {
+        return (graph, neighbours) -> new TwoOpt(graph, neighbours, true);
+    }
+}
@@ -0,0 +1,185 @@
+package Search;
+
+import Matrix.DistanceMatrix;
+
+// 2-opt and Or-opt over neighbour lists with don't-look bits. The tour is the array itself, with an
+// index of every city's position, so successor, predecessor and the gain of a move take O(1); applying
+// a move reverses or swaps array ranges, the shorter side where the instance allows it.
+// A city whose neighbourhood holds no improving move is dropped from the queue (its don't-look bit is
+// set) until a move changes one of the edges next to it.
+public final class TwoOpt implements LocalSearch {
+    private static final int MAX_SEGMENT = 3; // longest segment Or-opt moves
+
+    private final DistanceMatrix graph;
+    private final int[][] neighbours;
+    private final boolean symmetric; // 2-opt only applies to symmetric instances
+    private final boolean orOpt;
+    private final int n;
+    private final int[] position;
+    private final int[] queue;      // cities whose don't-look bit is off, circular
+    private final boolean[] queued;
+    private int head;
+    private int queueSize;
+    private int[] tour;
+
+    public TwoOpt(DistanceMatrix graph, int[][] neighbours, boolean orOpt) {
+        this.graph = graph;
+        this.neighbours = neighbours;
+        this.symmetric = graph.isSymmetric();
+        this.orOpt = orOpt;
+        this.n = graph.size();
+        this.position = new int[n];
+        this.queue = new int[n];
+        this.queued = new boolean[n];
+    }
+
+    @Override
+    public long improve(int[] tour) {
+        if (n < 8 || !symmetric && !orOpt) return 0;
+        this.tour = tour;
+        head = 0;
+        queueSize = 0;
+        for (int i = 0; i < n; i++) {
+            position[tour[i]] = i;
+            activate(tour[i]);
+        }
+        long gain = 0;
+        while (queueSize > 0) {
+            int city = queue[head];
+            head = (head + 1) % n;
+            queueSize--;
+            queued[city] = false;
+
+            long moveGain = symmetric ? twoOptMove(city) : 0;
+            if (moveGain == 0 && orOpt) moveGain = orOptMove(city);
+            gain += moveGain;
+        }
+        this.tour = null;
+        return gain;
+    }
+
+    // First improving 2-opt move that adds an edge from a to one of its neighbours, in either tour direction
+    private long twoOptMove(int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int b = forward ? next(a) : previous(a);
+            int removed = graph.get(a, b);
+            for (int c : neighbours[a]) {
+                int added = graph.get(a, c);
+                if (added >= removed) break; // the list is sorted, no later c can pay for the new edge
+                int d = forward ? next(c) : previous(c);
+                if (c == b || d == a) continue;
+                long gain = (long) removed + graph.get(c, d) - added - graph.get(b, d);
+                if (gain <= 0) continue;
+                // a b ... c d becomes a c ... b d; backwards, b a ... d c becomes b d ... a c
+                if (forward) reversePath(position[b], position[c]);
+                else reversePath(position[a], position[d]);
+                activate(a);
+                activate(b);
+                activate(c);
+                activate(d);
+                return gain;
+            }
+        }
+        return 0;
+    }
+
+    // First improving move of the segment of up to MAX_SEGMENT cities starting at s1 to between the
+    // predecessor of a neighbour e of its last city and e: p s1..s2 q ... c e becomes p q ... c s1..s2 e
+    private long orOptMove(int s1) {
+        int p = previous(s1);
+        int s2 = s1;
+        for (int length = 1; length <= MAX_SEGMENT && length < n - 3; length++) {
+            if (length > 1) s2 = next(s2);
+            int q = next(s2);
+            if (q == p) break;
+            long removed = (long) graph.get(p, s1) + graph.get(s2, q) - graph.get(p, q);
+            if (removed <= 0) continue;
+            for (int e : neighbours[s2]) {
+                int added = graph.get(s2, e);
+                if (added >= removed) break;
+                if (e == q || inSegment(e, s1, length)) continue;
+                int c = previous(e);
+                if (inSegment(c, s1, length)) continue;
+                long gain = removed - added - graph.get(c, s1) + graph.get(c, e);
+                if (gain <= 0) continue;
+                moveSegment(s1, s2, c, e);
+                activate(p);
+                activate(q);
+                activate(s1);
+                activate(s2);
+                activate(c);
+                activate(e);
+                return gain;
+            }
+        }
+        return 0;
+    }
+
+    private boolean inSegment(int city, int first, int length) {
+        return (position[city] - position[first] + n) % n < length;
+    }
+
+    // Swaps the segment with the block on its right (q .. c) or on its left (e .. p), whichever is shorter.
+    // Both are the same cyclic tour, and reversing S, reversing B and then S B as a whole yields B S with
+    // both blocks in their original direction.
+    private void moveSegment(int s1, int s2, int c, int e) {
+        int first = position[s1], last = position[s2];
+        int right = span(next(s2), c), left = span(e, previous(s1));
+        if (right <= left) {
+            int blockEnd = position[c];
+            reverse(first, last);
+            reverse((last + 1) % n, blockEnd);
+            reverse(first, blockEnd);
+        } else {
+            int blockStart = position[e];
+            reverse(blockStart, (first - 1 + n) % n);
+            reverse(first, last);
+            reverse(blockStart, last);
+        }
+    }
+
+    // Cities from x forward to y, both included
+    private int span(int x, int y) {
+        return (position[y] - position[x] + n) % n + 1;
+    }
+
+    // 2-opt reversal of the path from..to (tour positions). Reversing the complement instead gives the
+    // same tour read the other way round, and a symmetric instance doesn't tell the two apart
+    private void reversePath(int from, int to) {
+        int length = (to - from + n) % n + 1;
+        if (length * 2 > n) reverse((to + 1) % n, (from - 1 + n) % n);
+        else reverse(from, to);
+    }
+
+    // Reverses the cyclic range of tour positions from..to
+    private void reverse(int from, int to) {
+        int length = (to - from + n) % n + 1;
+        for (int k = 0; k < length / 2; k++) {
+            int x = tour[from], y = tour[to];
+            tour[from] = y;
+            position[y] = from;
+            tour[to] = x;
+            position[x] = to;
+            from = from + 1 == n ? 0 : from + 1;
+            to = to == 0 ? n - 1 : to - 1;
+        }
+    }
+
+    private int next(int city) {
+        int i = position[city] + 1;
+        return tour[i == n ? 0 : i];
+    }
+
+    private int previous(int city) {
+        int i = position[city] - 1;
+        return tour[i < 0 ? n - 1 : i];
+    }
+
+    private void activate(int city) {
+        if (queued[city]) return;
+        queued[city] = true;
+        queue[(head + queueSize) % n] = city;
+        queueSize++;
+    }
+}
@@ -0,0 +1,36 @@
+package Selection;
+
+// Roulette-wheel selection over unnormalized weights: prefixSums turns the weights into running totals
+// in place, select binary-searches a uniform point of the wheel. Nothing is normalized, and the
+// search cannot fall off the end of the wheel the way a cumulative scan of rounded probabilities can.
+public final class Roulette {
+    private Roulette() {
+    }
+
+    // weights[0 .. count) become cumulative sums; returns the total
+    public static double prefixSums(double[] weights, int count) {
+        double sum = 0.0;
+        for (int k = 0; k < count; k++) {
+            sum += weights[k];
+            weights[k] = sum;
+        }
+        return sum;
+    }
+
+    // First k whose running total exceeds u * total, for u uniform in [0, 1) and weights not negative.
+    // While the total is positive and finite, entries of weight 0 are never chosen, and a point rounded up
+    // to the total lands on the last entry. A total of 0, infinity or NaN (every weight underflowed to 0,
+    // or one overflowed) leaves no usable wheel, so every entry is then equally likely.
+    public static int select(double[] cumulative, int count, double u) {
+        double total = cumulative[count - 1];
+        if (!(total > 0 && total < Double.POSITIVE_INFINITY)) return Math.min((int) (u * count), count - 1);
+        double point = u * total;
+        int low = 0, high = count - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] > point) high = middle;
+            else low = middle + 1;
+        }
+        return low;
+    }
+}
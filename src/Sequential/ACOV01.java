@@ -1,5 +1,7 @@
 package Sequential;
 
+import Matrix.DistanceMatrix;
+import Matrix.IntDistanceMatrix;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,7 +31,7 @@ public class ACOV01 {
     private double randomFactor = 0.01;
     private int maxIterations = 300;
     private int noOfCities;
-    private int[][] graph;
+    private DistanceMatrix graph;
     private double[][] trails;
     private List<Ant> ants;
     private double[] probabilities;
@@ -67,14 +69,14 @@ public class ACOV01 {
 
     }
 
-    private int[][] generateRandomCity(int numberOfCities) {
+    private DistanceMatrix generateRandomCity(int numberOfCities) {
         int maxDistanceBetweenCities = 100;
-        int[][] randomCity = new int[numberOfCities][numberOfCities];
+        IntDistanceMatrix randomCity = new IntDistanceMatrix(numberOfCities);
 
         for (int i = 0; i < numberOfCities; i++) {
             for (int j = 0; j < numberOfCities; j++) {
-                if (i == j) randomCity[i][j] = 0;
-                else randomCity[i][j] = random.nextInt(maxDistanceBetweenCities) + 1;
+                if (i == j) randomCity.set(i, j, 0);
+                else randomCity.set(i, j, random.nextInt(maxDistanceBetweenCities) + 1);
             }
         }
         return randomCity;
@@ -111,7 +113,7 @@ public class ACOV01 {
     private void resetAnts() {
         for (Ant ant : ants) {
             ant.clear();
-            ant.visitCity(random.nextInt(noOfCities));
+            ant.visitCity(random.nextInt(noOfCities), graph);
         }
         currentIndex = 0;
     }
@@ -128,7 +130,7 @@ public class ACOV01 {
         probabilities = new double[noOfCities];
         for (int i = currentIndex; i < noOfCities - 1; i++) {
             for (Ant ant : ants) {
-                ant.visitCity(selectNextCity(ant));
+                ant.visitCity(selectNextCity(ant), graph);
             }
             currentIndex++;
         }
@@ -192,7 +194,7 @@ public class ACOV01 {
         for (int j = 0; j < noOfCities; j++) {
             if(j == i) continue;
             if (!ant.visited(j)) {
-                double valueToAdd = Math.pow(trails[i][j], alpha) * Math.pow(1.0 / graph[i][j], beta);
+                double valueToAdd = Math.pow(trails[i][j], alpha) * Math.pow(1.0 / graph.get(i, j), beta);
                 pheromone += valueToAdd;
                 if(Double.isNaN(valueToAdd) || Double.isInfinite(valueToAdd) || Double.isNaN(pheromone) || Double.isInfinite(pheromone) ){
                     throw new RuntimeException("There is a NaN or infinite value");
@@ -206,7 +208,7 @@ public class ACOV01 {
             if (ant.visited(j) || j == i) {
                 probabilities[j] = 0.0;
             } else {
-                double numerator = Math.pow(trails[i][j], alpha) * Math.pow(1.0 / graph[i][j], beta);
+                double numerator = Math.pow(trails[i][j], alpha) * Math.pow(1.0 / graph.get(i, j), beta);
                 if(Double.isNaN(numerator) || Double.isInfinite(numerator) ){
                     throw new RuntimeException("There is a NaN or infinite value");
                 }
@@ -216,19 +218,20 @@ public class ACOV01 {
     }
 
     public void prettyPrint() {
-        IntStream.range(0, graph.length).forEach(i -> System.out.print("\t" + i));
-        System.out.println("\n\t" + "----".repeat(graph.length));
+        int n = graph.size();
+        IntStream.range(0, n).forEach(i -> System.out.print("\t" + i));
+        System.out.println("\n\t" + "----".repeat(n));
 
-        for (int i = 0; i < graph.length; i++) {
+        for (int i = 0; i < n; i++) {
             System.out.print(i + " | ");
-            for (int j = 0; j < graph[i].length; j++) {
-                System.out.print(graph[i][j] + "\t");
+            for (int j = 0; j < n; j++) {
+                System.out.print(graph.get(i, j) + "\t");
             }
             System.out.println();
         }
     }
 
     public int naiveSolution() {
-        return IntStream.of(graph[0]).sum();
+        return IntStream.range(0, noOfCities).map(j -> graph.get(0, j)).sum();
     }
 }
\ No newline at end of file
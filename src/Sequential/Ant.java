@@ -1,41 +1,79 @@
 package Sequential;
 
+import Matrix.DistanceMatrix;
+
+import java.util.Arrays;
+
 public class Ant {
     protected int trailSize;
     protected int[] trail;
-    protected boolean[] visited;
+    protected long[] unvisited; // bit c of word c / 64 is set while city c is not on the trail
     private int numVisitedCities = 0;
+    private int tourLength; // of the trail so far, closing edge included once every city is visited
 
     public Ant(int tourSize) {
         this.trailSize = tourSize;
         this.trail = new int[tourSize];
-        this.visited = new boolean[tourSize];
+        this.unvisited = new long[(tourSize + 63) >>> 6];
+        clear();
     }
 
-    protected void visitCity(int city) {
+    protected void visitCity(int city, DistanceMatrix graph) {
+        if (numVisitedCities > 0)
+            tourLength += graph.get(trail[numVisitedCities - 1], city);
         trail[numVisitedCities++] = city;
-        visited[city] = true;
+        unvisited[city >>> 6] &= ~(1L << city);
+        if (numVisitedCities == trailSize)
+            tourLength += graph.get(city, trail[0]);
+    }
+
+    // Length of the complete tour, accumulated by visitCity
+    protected int getTourLength() {
+        return tourLength;
     }
 
     protected boolean visited(int i) {
-        return visited[i];
+        return (unvisited[i >>> 6] & (1L << i)) == 0;
+    }
+
+    // Writes the unvisited cities in increasing order to cities and returns how many there are.
+    // Costs one step per 64 cities plus one per unvisited city, so late steps of a tour are cheap.
+    protected int unvisitedCities(int[] cities) {
+        int count = 0;
+        for (int w = 0; w < unvisited.length; w++) {
+            long bits = unvisited[w];
+            while (bits != 0) {
+                cities[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return count;
+    }
+
+    // The trail was reordered in place, e.g. by local search, and got shorter by gain
+    protected void trailImproved(long gain) {
+        tourLength -= (int) gain;
     }
 
-    protected int trailLength(int[][] graph) {
-        int length = graph[trail[trailSize - 1]][trail[0]];
+    // Full recomputation, e.g. after the trail is modified in place
+    protected int trailLength(DistanceMatrix graph) {
+        int length = graph.get(trail[trailSize - 1], trail[0]);
         for (int i = 0; i < trailSize - 1; i++)
-            length += graph[trail[i]][trail[i + 1]];
+            length += graph.get(trail[i], trail[i + 1]);
         return length;
     }
 
+    // Word-level reset: every city unvisited again, the bits past the last city stay clear
     protected void clear() {
-        for (int i = 0; i < trailSize; i++)
-            visited[i] = false;
+        Arrays.fill(unvisited, -1L);
+        if ((trailSize & 63) != 0)
+            unvisited[unvisited.length - 1] = (1L << trailSize) - 1;
         numVisitedCities = 0;
+        tourLength = 0;
     }
 
     protected void setFirstCity(int city){
-        visited[city] = true;
+        unvisited[city >>> 6] &= ~(1L << city);
         trail[0] = city;
         numVisitedCities++;
     }
@@ -1,5 +1,17 @@
 package Sequential;
 
+import Instance.RandomInstance;
+import Matrix.*;
+import Search.Colonies;
+import Search.LocalSearch;
+import Selection.Roulette;
+import Solver.Incumbent;
+import Solver.Parameters;
+import Solver.PhaseTimes;
+import Solver.Result;
+import Solver.Termination;
+
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -7,6 +19,11 @@ import java.util.Random;
 import java.util.stream.IntStream;
 
 public class AntColonyOptimization {
+    // MMAS stagnation test: every this many iterations, the lambda-branching factor with this lambda
+    // is compared to its converged value (2 edges per city, 1 for asymmetric trails) plus the slack
+    private static final int STAGNATION_CHECK_INTERVAL = 10;
+    private static final int LOCAL_SEARCH_NEIGHBOURS = 10;
+
     /*
      * default
      * private double c = 1.0;             //number of trails
@@ -26,22 +43,94 @@ public class AntColonyOptimization {
     private double Q = 100.0 * 5;
     private double randomFactor = 0.1;
     private int maxIterations = 200;
+    private int attempts = 20;
+    private boolean quiet;           // no per-attempt output
+    // MAX-MIN Ant System: only the iteration's best ant deposits, trails stay within [tau_min, tau_max]
+    // and are reinitialized once the colony stagnates
+    private boolean maxMin;
+    private double pBest = 0.05;     // MMAS: chance of rebuilding the best tour once converged, sets tau_min
+    private int restartLimit = 3;    // MMAS: restarts in a row without a better tour before the run stops
+    private long nearestNeighbourLength; // of the greedy tour, bounds the trails until there is a best tour
+    private double bestAtRestart;    // MMAS: best length at the last restart of this attempt
+    private int unproductiveRestarts; // MMAS: restarts in a row that found no better tour
+    private int restarts;
+    // Termination besides the iteration budget: the first policy that is set and met ends the run
+    private long timeLimitNanos;     // 0 = none
+    private double targetLength;     // 0 = none
+    private int stallIterations;     // 0 = none, iterations without a better tour
+    private long runStart;           // System.nanoTime() when the run started
+    private Termination termination = Termination.COMPLETED;
+    private volatile boolean cancelled;
+    private volatile Incumbent incumbent; // best tour so far, for readers on other threads
 
     private int noOfCities;
-    private int[][] graph;
-    private double[][] trails;
+    private DistanceMatrix graph;
+    private WeightMatrix trails;
+    private WeightMatrix heuristic;  // eta^beta, fixed per graph
+    private WeightMatrix choiceInfo; // tau^alpha * eta^beta, refreshed per iteration
+    private boolean singlePrecision;
+    private boolean symmetric;       // graph and weights in packed upper-triangular storage
+    private int[][] candidateLists; // k nearest cities per city, null when the mode is off
+    private LocalSearch.Factory localSearchFactory;
+    private LocalSearch localSearch; // stage between tour construction and the trail update, null = off
     private List<Ant> ants;
-    private double[] probabilities;
+    private double[] weights;      // running choiceInfo totals, indexed like unvisitedCities
+    private int[] unvisitedCities; // cities the ant being moved has not visited yet, increasing order
 
     private int currentIndex;
 
     private int[] bestTourOrder;
     private double bestTourLength;
+    private long iterationNumber;   // iterations run since startAntOptimization
+    private long iterationsToBest;  // iterationNumber when the best tour was found
+    // time spent per phase over all iterations so far
+    private long constructNanos;    // local search included
+    private long updateBestNanos;
+    private long trailUpdateNanos;
 
     public AntColonyOptimization(int noOfCities, int minDistance, int maxDistance) {
         initializeParams(noOfCities, minDistance, maxDistance);
     }
 
+    // symmetric: d(i, j) == d(j, i), edges share one pheromone cell and take half the memory
+    public AntColonyOptimization(int noOfCities, int minDistance, int maxDistance, boolean symmetric) {
+        this.symmetric = symmetric;
+        initializeParams(noOfCities, minDistance, maxDistance);
+    }
+
+    // Solves the given instance, e.g. an Instance.CoordinateInstance; symmetric ones use triangular storage
+    public AntColonyOptimization(DistanceMatrix graph) {
+        this.symmetric = graph.isSymmetric();
+        initializeParams(graph);
+    }
+
+    // Configured by parameters, quiet, for SequentialSolver; threads, work stealing and islands do not apply
+    AntColonyOptimization(DistanceMatrix graph, Parameters parameters) {
+        this(graph);
+        alpha = parameters.alpha();
+        evaporation = parameters.evaporation();
+        Q = parameters.q();
+        randomFactor = parameters.randomFactor();
+        maxIterations = parameters.maxIterations();
+        attempts = parameters.attempts();
+        maxMin = parameters.maxMin();
+        pBest = parameters.pBest();
+        restartLimit = parameters.restartLimit();
+        quiet = true;
+        random.setSeed(parameters.seed());
+        setTimeLimit(parameters.timeLimit());
+        targetLength = parameters.targetLength();
+        stallIterations = parameters.stallIterations();
+        if (parameters.ants() > 0) setNumberOfAnts(parameters.ants());
+        if (parameters.singlePrecision()) setSinglePrecision(true);
+        if (parameters.beta() != beta) {
+            beta = parameters.beta();
+            computeHeuristic();
+        }
+        setCandidateListSize(parameters.candidateListSize());
+        setLocalSearch(parameters.localSearch());
+    }
+
     AntColonyOptimization(double al, double be, double ev, int q, double rf, int iter, int noOfCities, int minDistance, int maxDistance) {
         alpha = al;
         beta = be;
@@ -53,58 +142,108 @@ public class AntColonyOptimization {
     }
 
     private void initializeParams(int noOfCities, int minDistance, int maxDistance) {
-        graph = generateRandomCity(noOfCities, minDistance, maxDistance);
-        this.noOfCities = noOfCities;
-        int numberOfAnts = noOfCities;
-        ants = new ArrayList<>(numberOfAnts);
-        trails = new double[noOfCities][noOfCities];
-        probabilities = new double[noOfCities];
-        for (int i = 0; i < numberOfAnts; i++)
-            ants.add(new Ant(noOfCities));
+        initializeParams(generateRandomCity(noOfCities, minDistance, maxDistance));
     }
 
-    private int[][] generateRandomCity(int numberOfCities, int minDistance, int maxDistance) {
-        int[][] randomCity = new int[numberOfCities][numberOfCities];
+    private void initializeParams(DistanceMatrix graph) {
+        int noOfCities = graph.size();
+        this.graph = graph;
+        this.noOfCities = noOfCities;
+        nearestNeighbourLength = 0;
+        trails = newWeightMatrix();
+        choiceInfo = newWeightMatrix();
+        weights = new double[noOfCities];
+        unvisitedCities = new int[noOfCities];
+        setNumberOfAnts(noOfCities);
+        computeHeuristic();
+    }
 
-        for (int i = 0; i < numberOfCities; i++) {
-            for (int j = 0; j < numberOfCities; j++) {
-                if (i == j) randomCity[i][j] = 0;
-                else randomCity[i][j] = random.nextInt(maxDistance - minDistance + 1) + minDistance;
-            }
-        }
-        return randomCity;
+    private DistanceMatrix generateRandomCity(int numberOfCities, int minDistance, int maxDistance) {
+        return RandomInstance.generate(numberOfCities, minDistance, maxDistance, symmetric, random);
     }
 
     public void startAntOptimization() {
-        int attempts = 20;
-
+        iterationNumber = 0;
+        iterationsToBest = 0;
+        termination = Termination.COMPLETED;
+        runStart = System.nanoTime();
         for (int i = 0; i < attempts; i++) {
-            System.out.println("\nAttempt #" + (i+1));
-            solve();
+            if (!quiet) System.out.println("\nAttempt #" + (i+1));
+            if (!solve()) break;
 //            System.out.println("Best Tour Order: " + Arrays.toString(bestTourOrder) + "\n");
         }
 
 //        System.out.print("Length: " + bestTourLength + " Naive Solution: " + IntStream.of(graph[0]).sum() + " ");
     }
 
-    private void solve() {
+    // One attempt; false once a termination policy has ended the whole run
+    private boolean solve() {
         resetAnts();
-        clearTrails();
+        initializeTrails();
 
-        for (int i = 0; i < maxIterations; i++) {
-            currentIndex = 0;
-            for (Ant ant : ants) {
-                ant.clear();
-                ant.setFirstCity(random.nextInt(noOfCities));
+        bestAtRestart = Double.MAX_VALUE;
+        boolean running = true;
+        for (int i = 1; i <= maxIterations; i++) {
+            iterate();
+            if (terminated()) {
+                running = false;
+                break;
             }
-//            currentIndex = 1;
-            moveAnts();
-            updateTrails();
-            updateBest();
+            if (maxMin && !checkStagnation(i)) break;
+        }
+
+        if (!quiet) {
+            System.out.println("Best tour length: " + bestTourLength);
+            System.out.println("Best tour order: " + Arrays.toString(bestTourOrder) + '\n');
         }
+        return running;
+    }
+
+    private boolean stopRequested() {
+        return cancelled || timeLimitNanos > 0 && System.nanoTime() - runStart >= timeLimitNanos;
+    }
+
+    // Checked after every iteration; records which policy ended the run
+    private boolean terminated() {
+        if (cancelled) termination = Termination.CANCELLED;
+        else if (timeLimitNanos > 0 && System.nanoTime() - runStart >= timeLimitNanos) termination = Termination.TIME_LIMIT;
+        else if (targetLength > 0 && bestTourLength <= targetLength) termination = Termination.TARGET_LENGTH;
+        else if (stallIterations > 0 && iterationNumber - iterationsToBest >= stallIterations)
+            termination = Termination.STALLED;
+        else return false;
+        return true;
+    }
+
+    // The phases below are package-private so the benchmark module can time them one by one
+
+    void initializeTrails() {
+        clearTrails();
+        computeChoiceInformation();
+    }
 
-        System.out.println("Best tour length: " + bestTourLength);
-        System.out.println("Best tour order: " + Arrays.toString(bestTourOrder) + '\n');
+    void iterate() {
+        iterationNumber++;
+        long start = System.nanoTime();
+        if (!constructTours()) return; // stopping, the tours are partial
+        improveTours();
+        long toursBuilt = System.nanoTime();
+        updateTrails();
+        long trailsUpdated = System.nanoTime();
+        updateBest();
+        constructNanos += toursBuilt - start;
+        trailUpdateNanos += trailsUpdated - toursBuilt;
+        updateBestNanos += System.nanoTime() - trailsUpdated;
+    }
+
+    // False when the run was cancelled or ran out of time before the tours were complete
+    boolean constructTours() {
+        currentIndex = 0;
+        for (Ant ant : ants) {
+            ant.clear();
+            ant.setFirstCity(random.nextInt(noOfCities));
+        }
+//            currentIndex = 1;
+        return moveAnts();
     }
 
     private void resetAnts() {
@@ -114,118 +253,353 @@ public class AntColonyOptimization {
         }
     }
 
+    // MMAS starts every trail at tau_max, so the first iterations explore
     private void clearTrails() {
+        trails.fill(maxMin ? trailMax(bestLengthSoFar()) : 1);
+    }
+
+    // MMAS: every STAGNATION_CHECK_INTERVAL iterations a stagnated colony restarts from fresh trails;
+    // false ends the attempt once restartLimit restarts in a row found no better tour
+    private boolean checkStagnation(int iteration) {
+        if (iteration % STAGNATION_CHECK_INTERVAL != 0 || !Colonies.stagnated(trails, symmetric)) return true;
+        if (bestTourLength < bestAtRestart) {
+            bestAtRestart = bestTourLength;
+            unproductiveRestarts = 0;
+        } else if (++unproductiveRestarts > restartLimit) {
+            return false;
+        }
+        restarts++;
+        initializeTrails();
+        return true;
+    }
+
+    private double bestLengthSoFar() {
+        if (bestTourOrder != null) return bestTourLength;
+        if (nearestNeighbourLength == 0) nearestNeighbourLength = Colonies.nearestNeighbourTourLength(graph);
+        return nearestNeighbourLength;
+    }
+
+    private double trailMax(double bestLength) {
+        return Colonies.trailMax(Q, evaporation, bestLength);
+    }
+
+    private double trailMin(double trailMax) {
+        return Colonies.trailMin(trailMax, pBest, noOfCities);
+    }
+
+    // eta^beta is cached only for materialized graphs, on-demand distances keep computing it per iteration
+    private void computeHeuristic() {
+        if (!graph.isMaterialized()) {
+            heuristic = null;
+            return;
+        }
+        heuristic = newWeightMatrix();
+        for (int i = 0; i < noOfCities; i++) {
+            for (int j = heuristic.firstColumn(i); j < noOfCities; j++) {
+                heuristic.set(i, j, heuristic(i, j));
+            }
+        }
+    }
+
+    // coincident cities count as distance 1, so their heuristic stays finite
+    private double heuristic(int i, int j) {
+        return i == j ? 0.0 : Math.pow(1.0 / Math.max(graph.get(i, j), 1), beta);
+    }
+
+    private WeightMatrix newWeightMatrix() {
+        if (symmetric) return new TriangularWeightMatrix(noOfCities);
+        return singlePrecision ? new FloatWeightMatrix(noOfCities) : new DoubleWeightMatrix(noOfCities);
+    }
+
+    private void computeChoiceInformation() {
         for (int i = 0; i < noOfCities; i++) {
-            for (int j = 0; j < noOfCities; j++) {
-                trails[i][j] = 1;
+            if (heuristic != null) {
+                choiceInfo.powerProductRow(i, trails, alpha, heuristic);
+                continue;
             }
+            for (int j = choiceInfo.firstColumn(i); j < noOfCities; j++)
+                choiceInfo.set(i, j, Math.pow(trails.get(i, j), alpha) * heuristic(i, j));
         }
     }
 
-    private void moveAnts() {
-        probabilities = new double[noOfCities];
+    // All ants move in step, so a stop request is checked once per step rather than per tour
+    private boolean moveAnts() {
         for (int i = 0; i < noOfCities - 1; i++) {
+            if (stopRequested()) return false;
             for (Ant ant : ants) {
-                ant.visitCity(selectNextCity(ant));
+                ant.visitCity(selectNextCity(ant), graph);
             }
             currentIndex++;
         }
+        return true;
     }
 
-    private void updateTrails() {
-        for (int i = 0; i < noOfCities; i++) {
-            for (int j = 0; j < noOfCities; j++)
-                trails[i][j] *= evaporation;
-        }
-        for (Ant a : ants) {
-            double contribution = Q / a.trailLength(graph);
-            for (int i = 0; i < noOfCities - 1; i++)
-                trails[a.trail[i]][a.trail[i + 1]] += contribution;
-            trails[a.trail[noOfCities - 1]][a.trail[0]] += contribution;
+    // Evaporation and deposit, then the choiceInfo refresh (the parallel engine does both per row).
+    // MMAS deposits the iteration's best ant only and clamps the trails to the bounds of the best
+    // length so far, this iteration included.
+    void updateTrails() {
+        for (int i = 0; i < noOfCities; i++)
+            trails.scaleRow(i, evaporation);
+        if (maxMin) {
+            Ant best = ants.getFirst();
+            for (Ant a : ants)
+                if (a.getTourLength() < best.getTourLength()) best = a;
+            deposit(best);
+            double trailMax = trailMax(Math.min(bestLengthSoFar(), best.getTourLength()));
+            for (int i = 0; i < noOfCities; i++)
+                trails.clampRow(i, trailMin(trailMax), trailMax);
+        } else {
+            for (Ant a : ants)
+                deposit(a);
         }
+        computeChoiceInformation();
     }
 
-    private void updateBest() {
-        if (bestTourOrder == null) {
-            bestTourOrder = ants.getFirst().trail;
-            bestTourLength = ants.getFirst().trailLength(graph);
-        }
+    private void deposit(Ant a) {
+        double contribution = Q / a.getTourLength();
+        for (int i = 0; i < noOfCities - 1; i++)
+            trails.add(a.trail[i], a.trail[i + 1], contribution);
+        trails.add(a.trail[noOfCities - 1], a.trail[0], contribution);
+    }
 
+    // Tour lengths come cached from visitCity; the best tour is a copy, ant trails are reused
+    void updateBest() {
         for (Ant a : ants) {
-            if (a.trailLength(graph) < bestTourLength) {
-                bestTourLength = a.trailLength(graph);
+            int length = a.getTourLength();
+            if (bestTourOrder == null || length < bestTourLength) {
+                bestTourLength = length;
                 bestTourOrder = a.trail.clone();
+                iterationsToBest = iterationNumber;
             }
         }
+        if (iterationsToBest == iterationNumber)
+            incumbent = new Incumbent(bestTourOrder, bestTourLength, iterationNumber, System.nanoTime() - runStart);
     }
 
     private int selectNextCity(Ant ant) {
-        if (random.nextDouble() < randomFactor) {
-            List<Integer> notVisitedCities = new ArrayList<>();
-            for (int i = 0; i < noOfCities; i++) {
-                if (!ant.visited(i)) {
-                    notVisitedCities.add(i);
-                }
-            }
-            if (!notVisitedCities.isEmpty()) {
-                int index = random.nextInt(notVisitedCities.size());
-                return notVisitedCities.get(index);
-            }
-        }
-        calculateProbabilities(ant);
-        double r = random.nextDouble();
-        double total = 0;
-        for (int i = 0; i < noOfCities; i++) {
-            total += probabilities[i];
-            if (total >= r) {
-                return i;
-            }
+        if (candidateLists != null) {
+            int next = selectFromCandidates(ant);
+            if (next >= 0) return next;
         }
-        for (int i = 0; i < noOfCities; i++) {
-            if (!ant.visited(i)) {
-                return i;
-            }
+        int count = ant.unvisitedCities(unvisitedCities);
+        if (count == 0) throw new RuntimeException("There are no other cities");
+        if (random.nextDouble() < randomFactor) {
+            return unvisitedCities[random.nextInt(count)];
         }
-        throw new RuntimeException("There are no other cities");
+        cumulativeWeights(ant, count);
+        return unvisitedCities[Roulette.select(weights, count, random.nextDouble())];
     }
 
-    private void calculateProbabilities(Ant ant) {
+    // Roulette over the unvisited candidates of the current city, -1 when all of them are visited
+    private int selectFromCandidates(Ant ant) {
         int currentCity = ant.trail[currentIndex];
-        double pheromone = 0.0;
-        for (int j = 0; j < noOfCities; j++) {
-            if (!ant.visited(j)) {
-                pheromone += Math.pow(trails[currentCity][j], alpha) * Math.pow(1.0 / graph[currentCity][j], beta);
+        int[] candidates = candidateLists[currentCity];
+        double total = 0.0;
+        int unvisited = 0;
+        for (int city : candidates) {
+            if (!ant.visited(city)) {
+                total += choiceInfo.get(currentCity, city);
+                unvisited++;
             }
         }
+        if (unvisited == 0) return -1;
 
-        for (int j = 0; j < noOfCities; j++) {
-            if (ant.visited(j)) {
-                probabilities[j] = 0.0;
-            } else {
-                double numerator = Math.pow(trails[currentCity][j], alpha) * Math.pow(1.0 / graph[currentCity][j], beta);
-                probabilities[j] = numerator / pheromone;
+        boolean explore = random.nextDouble() < randomFactor;
+        int target = explore ? random.nextInt(unvisited) : -1;
+        double r = random.nextDouble() * total;
+        double cumulative = 0.0;
+        int last = -1;
+        for (int city : candidates) {
+            if (ant.visited(city)) continue;
+            last = city;
+            if (explore) {
+                if (target-- == 0) return city;
+                continue;
             }
+            cumulative += choiceInfo.get(currentCity, city);
+            if (cumulative >= r) return city;
         }
+        return last;
     }
 
+    // The wheel Roulette.select spins: weights[k] sums the unnormalized choiceInfo of unvisitedCities[0 .. k]
+    private void cumulativeWeights(Ant ant, int count) {
+        int currentCity = ant.trail[currentIndex];
+        choiceInfo.gatherRow(currentCity, unvisitedCities, count, weights);
+        Roulette.prefixSums(weights, count);
+    }
+
+    // Local-search stage: every ant's tour improved in place before any of them deposits
+    void improveTours() {
+        if (localSearch == null) return;
+        for (Ant ant : ants)
+            ant.trailImproved(localSearch.improve(ant.trail));
+    }
+
+    // in symmetric mode only the upper triangle of graph is used
     public void setGraph(int[][] graph) {
-        this.graph = graph;
+        this.graph = symmetric ? TriangularDistanceMatrix.upperOf(graph) : IntDistanceMatrix.of(graph);
+        nearestNeighbourLength = 0;
+        computeHeuristic();
+        if (candidateLists != null) setCandidateListSize(candidateLists[0].length);
+        if (localSearchFactory != null) setLocalSearch(localSearchFactory);
+    }
+
+    // factor every trail is multiplied by before the deposit, i.e. the share of pheromone kept; below 1 for MMAS
+    public void setEvaporation(double evaporation) {
+        if (maxMin && evaporation >= 1) throw new IllegalArgumentException("MAX-MIN needs evaporation below 1");
+        this.evaporation = evaporation;
+    }
+
+    // MAX-MIN Ant System: the iteration's best ant alone deposits and trails are clamped to [tau_min, tau_max].
+    // A colony whose lambda-branching factor shows it converged restarts from tau_max trails, and an attempt
+    // ends early after restartLimit restarts in a row without a better tour. Pairs with slower evaporation
+    // and no random moves, e.g. setEvaporation(0.9) and setRandomFactor(0), which lets the colony converge.
+    public void setMaxMin(boolean maxMin) {
+        if (maxMin && evaporation >= 1) throw new IllegalArgumentException("MAX-MIN needs evaporation below 1");
+        this.maxMin = maxMin;
+    }
+
+    // MMAS: probability that a converged colony rebuilds the best tour, the smaller the higher tau_min
+    public void setPBest(double pBest) {
+        this.pBest = pBest;
+    }
+
+    // MMAS: restarts in a row that find no better tour before an attempt stops
+    public void setRestartLimit(int restartLimit) {
+        this.restartLimit = restartLimit;
+    }
+
+    // MMAS: stagnation restarts over all attempts so far
+    public int getRestarts() {
+        return restarts;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    // No per-attempt output
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    public double getBestTourLength() {
+        return bestTourLength;
+    }
+
+    public int[] getBestTourOrder() {
+        return bestTourOrder == null ? null : bestTourOrder.clone();
+    }
+
+    public PhaseTimes getPhaseTimes() {
+        return new PhaseTimes(constructNanos, updateBestNanos, trailUpdateNanos);
+    }
+
+    // Run stops at the first of these that is met, besides the iteration budget of every attempt: a wall-clock
+    // limit from the start of the run (null = none), a target tour length (0 = none) and a number of
+    // iterations in a row without a better tour (0 = none). All are checked between iterations, the time
+    // limit also between the steps of the tour construction.
+    public void setTimeLimit(Duration timeLimit) {
+        this.timeLimitNanos = timeLimit == null ? 0 : timeLimit.toNanos();
+    }
+
+    public void setTargetLength(double targetLength) {
+        this.targetLength = targetLength;
+    }
+
+    public void setStallIterations(int stallIterations) {
+        this.stallIterations = stallIterations;
+    }
+
+    // Safe from any thread: the run returns its best so far within one construction step.
+    // A cancelled colony stays cancelled.
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // Best tour of the run so far, readable from any thread while it runs; null before the first iteration
+    public Incumbent getIncumbent() {
+        return incumbent;
+    }
+
+    public Termination getTermination() {
+        return termination;
+    }
+
+    Result result(long elapsedNanos) {
+        return new Result(bestTourOrder, bestTourLength, iterationsToBest, iterationNumber, restarts,
+                getPhaseTimes(), elapsedNanos, termination);
+    }
+
+    // Makes the run reproducible; a random instance is generated before this takes effect
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    // One ant per city unless set otherwise; a new graph resets it to that default
+    public void setNumberOfAnts(int numberOfAnts) {
+        ants = new ArrayList<>(numberOfAnts);
+        for (int i = 0; i < numberOfAnts; i++)
+            ants.add(new Ant(noOfCities));
+    }
+
+    // Replaces the instance, e.g. with one read by Instance.TsplibReader; storage follows graph.isSymmetric()
+    public void setGraph(DistanceMatrix graph) {
+        this.symmetric = graph.isSymmetric();
+        initializeParams(graph);
+        bestTourOrder = null;
+        if (candidateLists != null) setCandidateListSize(candidateLists[0].length);
+        if (localSearchFactory != null) setLocalSearch(localSearchFactory);
+    }
+
+    // Stores pheromone and choice information as floats, and distances as shorts when they fit
+    // (symmetric instances keep their triangular double storage)
+    public void setSinglePrecision(boolean singlePrecision) {
+        this.singlePrecision = singlePrecision;
+        if (singlePrecision && graph instanceof IntDistanceMatrix && ShortDistanceMatrix.fits(graph))
+            graph = ShortDistanceMatrix.of(graph);
+        trails = newWeightMatrix();
+        choiceInfo = newWeightMatrix();
+        computeHeuristic();
+    }
+
+    // k > 0 restricts selection to the k nearest cities (full scan once they are all visited), k = 0 disables it
+    public void setCandidateListSize(int k) {
+        candidateLists = k > 0 ? Colonies.nearestNeighbours(graph, Math.min(k, noOfCities - 1)) : null;
+    }
+
+    // Local search on every ant's tour between construction and the trail update, e.g.
+    // LocalSearch.twoOptOrOpt(); null turns it off
+    public void setLocalSearch(LocalSearch.Factory factory) {
+        localSearchFactory = factory;
+        localSearch = factory == null ? null : factory.create(graph,
+                Colonies.nearestNeighbours(graph, Math.min(LOCAL_SEARCH_NEIGHBOURS, noOfCities - 1)));
     }
 
     public void prettyPrint() {
-        IntStream.range(0, graph.length).forEach(i -> System.out.print("\t" + i));
-        System.out.println("\n\t" + "----".repeat(graph.length));
+        prettyPrint(graph);
+    }
+
+    public static void prettyPrint(DistanceMatrix graph) {
+        int n = graph.size();
+        IntStream.range(0, n).forEach(i -> System.out.print("\t" + i));
+        System.out.println("\n\t" + "----".repeat(n));
 
-        for (int i = 0; i < graph.length; i++) {
+        for (int i = 0; i < n; i++) {
             System.out.print(i + " | ");
-            for (int j = 0; j < graph[i].length; j++) {
-                System.out.print(graph[i][j] + "\t");
+            for (int j = 0; j < n; j++) {
+                System.out.print(graph.get(i, j) + "\t");
             }
             System.out.println();
         }
     }
 
     public int naiveSolution() {
-        return IntStream.of(graph[0]).sum();
+        return IntStream.range(0, noOfCities).map(j -> graph.get(0, j)).sum();
     }
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+package Sequential;
+
+import Matrix.*;
+import Search.Colonies;
+import Selection.Roulette;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Ant Colony System (Dorigo & Gambardella, 1997). With probability q0 an ant takes the most attractive
+// edge instead of spinning the roulette. Every edge it takes is pulled back toward tau0 (the local
+// update), and only the best tour so far deposits pheromone (the global update). The defaults are the
+// paper's: 10 ants, beta 2, q0 0.9, rho = xi = 0.1 and 15 nearest-neighbour candidates.
+public class AntColonySystem {
+    private final Random random = new Random();
+    private double beta = 2;
+    private double q0 = 0.9;         // probability of the greedy move
+    private double rho = 0.1;        // share of pheromone the global update replaces on the best tour
+    private double xi = 0.1;         // share of pheromone the local update replaces with tau0
+    private double tau0;             // 1 / (n * nearest-neighbour tour length), the initial pheromone
+    private int maxIterations = 1000;
+    private boolean quiet;           // no per-run output
+
+    private final int noOfCities;
+    private final DistanceMatrix graph;
+    private final WeightMatrix trails;
+    private WeightMatrix heuristic;  // eta^beta, fixed per graph, null for on-demand distances
+    private int[][] candidateLists;  // k nearest cities per city, null when the mode is off
+    private List<Ant> ants;
+    private final int[] cities;      // cities the next move chooses from
+    private final double[] weights;  // running totals of their attractiveness
+
+    private int[] bestTourOrder;
+    private double bestTourLength;
+
+    public AntColonySystem(DistanceMatrix graph) {
+        this.graph = graph;
+        this.noOfCities = graph.size();
+        trails = graph.isSymmetric() ? new TriangularWeightMatrix(noOfCities) : new DoubleWeightMatrix(noOfCities);
+        cities = new int[noOfCities];
+        weights = new double[noOfCities];
+        tau0 = 1.0 / ((double) noOfCities * Colonies.nearestNeighbourTourLength(graph));
+        setNumberOfAnts(10);
+        setCandidateListSize(15);
+        computeHeuristic();
+    }
+
+    public void startAntOptimization() {
+        initializeTrails();
+        for (int i = 0; i < maxIterations; i++)
+            iterate();
+        if (quiet) return;
+        System.out.println("Best tour length: " + bestTourLength);
+        System.out.println("Best tour order: " + Arrays.toString(bestTourOrder) + '\n');
+    }
+
+    // Every cell back to tau0 and no best tour yet, since the global update deposits on it
+    void initializeTrails() {
+        trails.fill(tau0);
+        bestTourOrder = null;
+    }
+
+    void iterate() {
+        for (Ant ant : ants)
+            constructTour(ant);
+        updateBest();
+        globalUpdate();
+    }
+
+    // Tour by tour rather than the paper's step by step: each move, the closing one included,
+    // applies the local update before the next move is chosen
+    private void constructTour(Ant ant) {
+        ant.clear();
+        int firstCity = random.nextInt(noOfCities);
+        ant.setFirstCity(firstCity);
+        int currentCity = firstCity;
+        for (int i = 0; i < noOfCities - 1; i++) {
+            int nextCity = selectNextCity(ant, currentCity);
+            localUpdate(currentCity, nextCity);
+            ant.visitCity(nextCity, graph);
+            currentCity = nextCity;
+        }
+        localUpdate(currentCity, firstCity);
+    }
+
+    private void localUpdate(int i, int j) {
+        trails.set(i, j, (1 - xi) * trails.get(i, j) + xi * tau0);
+    }
+
+    // Pseudo-random-proportional rule over the unvisited candidates, or over every unvisited city
+    // once the candidates are used up
+    private int selectNextCity(Ant ant, int currentCity) {
+        boolean exploit = random.nextDouble() < q0;
+        int count = 0;
+        if (candidateLists != null) {
+            for (int city : candidateLists[currentCity])
+                if (!ant.visited(city)) cities[count++] = city;
+        }
+        if (count == 0) count = ant.unvisitedCities(cities);
+
+        if (exploit) {
+            int best = cities[0];
+            double bestWeight = attractiveness(currentCity, best);
+            for (int k = 1; k < count; k++) {
+                double weight = attractiveness(currentCity, cities[k]);
+                if (weight > bestWeight) {
+                    best = cities[k];
+                    bestWeight = weight;
+                }
+            }
+            return best;
+        }
+        for (int k = 0; k < count; k++)
+            weights[k] = attractiveness(currentCity, cities[k]);
+        Roulette.prefixSums(weights, count);
+        return cities[Roulette.select(weights, count, random.nextDouble())];
+    }
+
+    private double attractiveness(int i, int j) {
+        return trails.get(i, j) * (heuristic != null ? heuristic.get(i, j) : heuristic(i, j));
+    }
+
+    private void updateBest() {
+        for (Ant a : ants) {
+            int length = a.getTourLength();
+            if (bestTourOrder == null || length < bestTourLength) {
+                bestTourLength = length;
+                bestTourOrder = a.trail.clone();
+            }
+        }
+    }
+
+    // tau = (1 - rho) tau + rho / L on the edges of the best tour so far
+    private void globalUpdate() {
+        double deposit = rho / bestTourLength;
+        for (int i = 0; i < noOfCities; i++) {
+            int from = bestTourOrder[i], to = bestTourOrder[(i + 1) % noOfCities];
+            trails.set(from, to, (1 - rho) * trails.get(from, to) + deposit);
+        }
+    }
+
+    // eta^beta is cached only for materialized graphs, on-demand distances keep computing it per move
+    private void computeHeuristic() {
+        if (!graph.isMaterialized()) {
+            heuristic = null;
+            return;
+        }
+        heuristic = graph.isSymmetric() ? new TriangularWeightMatrix(noOfCities) : new DoubleWeightMatrix(noOfCities);
+        for (int i = 0; i < noOfCities; i++)
+            for (int j = heuristic.firstColumn(i); j < noOfCities; j++)
+                heuristic.set(i, j, heuristic(i, j));
+    }
+
+    // coincident cities count as distance 1, so their heuristic stays finite
+    private double heuristic(int i, int j) {
+        return i == j ? 0.0 : Math.pow(1.0 / Math.max(graph.get(i, j), 1), beta);
+    }
+
+    // ACS works with few ants, 10 unless set otherwise
+    public void setNumberOfAnts(int numberOfAnts) {
+        ants = new ArrayList<>(numberOfAnts);
+        for (int i = 0; i < numberOfAnts; i++)
+            ants.add(new Ant(noOfCities));
+    }
+
+    public void setBeta(double beta) {
+        this.beta = beta;
+        computeHeuristic();
+    }
+
+    // probability of moving to the most attractive unvisited candidate instead of a roulette draw
+    public void setQ0(double q0) {
+        this.q0 = q0;
+    }
+
+    // share of pheromone the global update replaces with 1 / best length on the best tour's edges
+    public void setRho(double rho) {
+        this.rho = rho;
+    }
+
+    // share of pheromone the local update replaces with tau0 on every edge an ant takes
+    public void setXi(double xi) {
+        this.xi = xi;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    // k > 0 restricts selection to the k nearest cities (full scan once they are all visited), k = 0 disables it
+    public void setCandidateListSize(int k) {
+        candidateLists = k > 0 ? Colonies.nearestNeighbours(graph, Math.min(k, noOfCities - 1)) : null;
+    }
+
+    public double getBestTourLength() {
+        return bestTourLength;
+    }
+
+    public int[] getBestTourOrder() {
+        return bestTourOrder == null ? null : bestTourOrder.clone();
+    }
+}
@@ -1,7 +1,17 @@
 package Sequential;
 
+import Instance.RandomInstance;
+import Instance.TsplibReader;
+import Matrix.DistanceMatrix;
+import Solver.Parameters;
+import Solver.Result;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
 public class Main {
@@ -12,7 +22,7 @@ public class Main {
 
     public static void manualTesting(int noOfCities) {
         int minDistance = 20, maxDistance = 100;
-//        int[][] graph = new int[][]{
+//        int[][] cities = new int[][]{
 //                // Mumbai, Delhi, Bengaluru, Chennai
 //                {   0,   1400,     980,     1330 }, // Mumbai
 //                {1400,      0,    2150,     2200 }, // Delhi
@@ -20,34 +30,51 @@ public class Main {
 //                {1330,   2200,     350,        0 }  // Chennai
 //        };
 
-        AntColonyOptimization aco = new AntColonyOptimization(noOfCities, minDistance, maxDistance);
-//        aco.setGraph(graph);
-        int naive = aco.naiveSolution();
-        aco.prettyPrint();
-        long startTime = System.currentTimeMillis();
-        aco.startAntOptimization();
+        DistanceMatrix graph = RandomInstance.generate(noOfCities, minDistance, maxDistance, false, new Random());
+//        DistanceMatrix graph = IntDistanceMatrix.of(cities);
+        int naive = IntStream.range(0, noOfCities).map(j -> graph.get(0, j)).sum();
+        AntColonyOptimization.prettyPrint(graph);
+        Result result = new SequentialSolver(Parameters.builder().build()).solve(graph);
 
-        System.out.println("Global time: " + (System.currentTimeMillis() - startTime) + " ms");
+        System.out.println("Best tour length: " + result.bestLength());
+        System.out.println("Best tour order: " + Arrays.toString(result.bestTour()));
+        System.out.println("Global time: " + result.elapsedNanos() / 1_000_000 + " ms");
 //        System.out.println("Naive solution: " + naive);
     }
 
+    // Parses a TSPLIB file a few times (the first run warms up), reports MB/s and solves the instance
+    public static void tsplibBenchmark(Path file) throws IOException {
+        int runs = 5;
+        TsplibReader reader = new TsplibReader();
+        DistanceMatrix graph = null;
+        double total = 0;
+        for (int i = 0; i < runs; i++) {
+            graph = reader.parse(file);
+            if (i > 0) total += reader.megabytesPerSecond();
+            System.out.printf("- %s: %d cities, %.1f MB at %.1f MB/s%n",
+                    reader.name(), graph.size(), reader.bytesRead() / 1e6, reader.megabytesPerSecond());
+        }
+        System.out.printf("Average parse throughput: %.1f MB/s%n", total / (runs - 1));
+
+        Result result = new SequentialSolver(Parameters.builder().build()).solve(graph);
+        System.out.println("Best tour length: " + result.bestLength());
+        System.out.println("Global time: " + result.elapsedNanos() / 1_000_000 + " ms");
+    }
+
     public static void seqBenchmark() {
         int minDistance = 20, maxDistance = 100;
         int [] citySizes = {50, 75, 100, 150, 200};
         int cycles = 5;
 
         long[] results = new long[cycles];
+        SequentialSolver solver = new SequentialSolver(Parameters.builder().build());
 
         System.out.println("Start time:" + LocalDateTime.now());
         System.out.print("Sequential with \n cities: " + Arrays.toString(citySizes) +'\n');
         for(int noOfCities : citySizes){
            for (int i = 0; i < cycles; i++) {
-               AntColonyOptimization aco =  new AntColonyOptimization(noOfCities, minDistance, maxDistance);
-
-               long startTime = System.currentTimeMillis();
-               aco.startAntOptimization();
-               long endTime = System.currentTimeMillis();
-               long elapsedTime = endTime - startTime;
+               DistanceMatrix graph = RandomInstance.generate(noOfCities, minDistance, maxDistance, false, new Random());
+               long elapsedTime = solver.solve(graph).elapsedNanos() / 1_000_000;
 
                if (i > 0){
                    results[i - 1] = elapsedTime;
@@ -56,8 +83,8 @@ public class Main {
                else System.out.print("- Warm up");
            }
 
-           System.out.printf("Cities: %d, avg Time: %d, cycles: 20, %n", noOfCities, LongStream.of(results).sum() / cycles );
+           System.out.printf("Cities: %d, avg Time: %d, cycles: %d, %n", noOfCities, LongStream.of(results).sum() / (cycles - 1), cycles - 1);
         }
         System.out.println("End time:" + LocalDateTime.now());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package Sequential;
+
+import Matrix.DistanceMatrix;
+import Solver.Parameters;
+import Solver.Result;
+import Solver.Run;
+import Solver.TspSolver;
+
+import java.util.Objects;
+
+// The single-threaded Ant System as a library: every solve runs a fresh, quiet colony on the calling
+// thread (start: on a thread of its own). Parameters.threads, workStealing, islandMode and
+// migrationInterval are ignored.
+public final class SequentialSolver implements TspSolver {
+    private final Parameters parameters;
+
+    public SequentialSolver(Parameters parameters) {
+        this.parameters = Objects.requireNonNull(parameters);
+    }
+
+    @Override
+    public Result solve(DistanceMatrix instance) {
+        return run(new AntColonyOptimization(instance, parameters));
+    }
+
+    @Override
+    public Run start(DistanceMatrix instance) {
+        AntColonyOptimization colony = new AntColonyOptimization(instance, parameters);
+        return Run.start("aco-run", colony::getIncumbent, colony::cancel, () -> run(colony));
+    }
+
+    private static Result run(AntColonyOptimization colony) {
+        long start = System.nanoTime();
+        colony.startAntOptimization();
+        return colony.result(System.nanoTime() - start);
+    }
+
+    @Override
+    public Parameters parameters() {
+        return parameters;
+    }
+}
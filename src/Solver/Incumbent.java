@@ -0,0 +1,21 @@
+package Solver;
+
+// Best tour found so far by a run in progress, as published after the iteration that found it.
+// iteration counts the iterations of all attempts; elapsedNanos is measured from the start of the run.
+public record Incumbent(int[] tour, double length, long iteration, long elapsedNanos) {
+
+    public Incumbent {
+        tour = tour.clone();
+    }
+
+    // A copy, so the incumbent stays immutable
+    @Override
+    public int[] tour() {
+        return tour.clone();
+    }
+
+    // The shorter of the two, for lock-free accumulation; null counts as no tour
+    public static Incumbent better(Incumbent current, Incumbent candidate) {
+        return current == null || candidate.length < current.length ? candidate : current;
+    }
+}
@@ -0,0 +1,236 @@
+package Solver;
+
+import Search.LocalSearch;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+// Immutable solver configuration, made with builder() and changed with toBuilder(). The defaults are the
+// engines' own. Options a Sequential.SequentialSolver has no use for (threads, workStealing, islandMode,
+// migrationInterval) are ignored there. Besides maxIterations per attempt, a run stops at the first of
+// timeLimit, targetLength and stallIterations that is set.
+public record Parameters(double alpha,          // pheromone importance
+                         double beta,           // distance importance
+                         double evaporation,    // share of pheromone kept per iteration
+                         double q,              // pheromone deposited per ant, divided by its tour length
+                         double randomFactor,   // probability of a uniformly random move
+                         int maxIterations,     // per attempt
+                         int attempts,
+                         int ants,              // 0 = one per city
+                         int threads,
+                         boolean workStealing,
+                         boolean islandMode,
+                         int migrationInterval, // 0 = no migration between islands
+                         int candidateListSize, // 0 = every unvisited city is a candidate
+                         boolean maxMin,
+                         double pBest,
+                         int restartLimit,
+                         LocalSearch.Factory localSearch, // null = no local search
+                         boolean singlePrecision,
+                         long seed,
+                         Duration timeLimit,    // null = none, wall clock from the start of the run
+                         double targetLength,   // 0 = none, stop once the best tour is this short
+                         int stallIterations) { // 0 = none, stop after this many iterations without a better tour
+
+    // Range checks are written so that NaN fails them too
+    public Parameters {
+        if (!Double.isFinite(alpha) || alpha < 0) throw new IllegalArgumentException("alpha must be finite and not negative");
+        if (!Double.isFinite(beta) || beta < 0) throw new IllegalArgumentException("beta must be finite and not negative");
+        if (!Double.isFinite(q) || q <= 0) throw new IllegalArgumentException("q must be finite and positive");
+        if (!(evaporation >= 0 && evaporation <= 1)) throw new IllegalArgumentException("evaporation must be in [0, 1]");
+        if (!(randomFactor >= 0 && randomFactor <= 1)) throw new IllegalArgumentException("randomFactor must be in [0, 1]");
+        if (maxIterations < 1) throw new IllegalArgumentException("maxIterations must be at least 1");
+        if (attempts < 1) throw new IllegalArgumentException("attempts must be at least 1");
+        if (ants < 0) throw new IllegalArgumentException("ants must not be negative");
+        if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+        if (migrationInterval < 0) throw new IllegalArgumentException("migrationInterval must not be negative");
+        if (candidateListSize < 0) throw new IllegalArgumentException("candidateListSize must not be negative");
+        if (!(pBest > 0 && pBest < 1)) throw new IllegalArgumentException("pBest must be in (0, 1)");
+        // tau_max = q / ((1 - evaporation) L) is infinite at evaporation 1
+        if (maxMin && evaporation >= 1) throw new IllegalArgumentException("evaporation must be below 1 with maxMin");
+        if (restartLimit < 0) throw new IllegalArgumentException("restartLimit must not be negative");
+        if (timeLimit != null && !timeLimit.isPositive()) throw new IllegalArgumentException("timeLimit must be positive");
+        if (!Double.isFinite(targetLength) || targetLength < 0)
+            throw new IllegalArgumentException("targetLength must be finite and not negative");
+        if (stallIterations < 0) throw new IllegalArgumentException("stallIterations must not be negative");
+    }
+
+    // Defaults, with all cores and a random seed
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    public static final class Builder {
+        private double alpha = 1;
+        private double beta = 5;
+        private double evaporation = 0.5;
+        private double q = 500;
+        private double randomFactor = 0.1;
+        private int maxIterations = 200;
+        private int attempts = 20;
+        private int ants;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private boolean workStealing;
+        private boolean islandMode;
+        private int migrationInterval;
+        private int candidateListSize;
+        private boolean maxMin;
+        private double pBest = 0.05;
+        private int restartLimit = 3;
+        private LocalSearch.Factory localSearch;
+        private boolean singlePrecision;
+        private long seed = new SplittableRandom().nextLong();
+        private Duration timeLimit;
+        private double targetLength;
+        private int stallIterations;
+
+        private Builder() {
+        }
+
+        private Builder(Parameters parameters) {
+            alpha = parameters.alpha;
+            beta = parameters.beta;
+            evaporation = parameters.evaporation;
+            q = parameters.q;
+            randomFactor = parameters.randomFactor;
+            maxIterations = parameters.maxIterations;
+            attempts = parameters.attempts;
+            ants = parameters.ants;
+            threads = parameters.threads;
+            workStealing = parameters.workStealing;
+            islandMode = parameters.islandMode;
+            migrationInterval = parameters.migrationInterval;
+            candidateListSize = parameters.candidateListSize;
+            maxMin = parameters.maxMin;
+            pBest = parameters.pBest;
+            restartLimit = parameters.restartLimit;
+            localSearch = parameters.localSearch;
+            singlePrecision = parameters.singlePrecision;
+            seed = parameters.seed;
+            timeLimit = parameters.timeLimit;
+            targetLength = parameters.targetLength;
+            stallIterations = parameters.stallIterations;
+        }
+
+        public Builder alpha(double alpha) {
+            this.alpha = alpha;
+            return this;
+        }
+
+        public Builder beta(double beta) {
+            this.beta = beta;
+            return this;
+        }
+
+        public Builder evaporation(double evaporation) {
+            this.evaporation = evaporation;
+            return this;
+        }
+
+        public Builder q(double q) {
+            this.q = q;
+            return this;
+        }
+
+        public Builder randomFactor(double randomFactor) {
+            this.randomFactor = randomFactor;
+            return this;
+        }
+
+        public Builder maxIterations(int maxIterations) {
+            this.maxIterations = maxIterations;
+            return this;
+        }
+
+        public Builder attempts(int attempts) {
+            this.attempts = attempts;
+            return this;
+        }
+
+        public Builder ants(int ants) {
+            this.ants = ants;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder workStealing(boolean workStealing) {
+            this.workStealing = workStealing;
+            return this;
+        }
+
+        public Builder islandMode(boolean islandMode) {
+            this.islandMode = islandMode;
+            return this;
+        }
+
+        public Builder migrationInterval(int migrationInterval) {
+            this.migrationInterval = migrationInterval;
+            return this;
+        }
+
+        public Builder candidateListSize(int candidateListSize) {
+            this.candidateListSize = candidateListSize;
+            return this;
+        }
+
+        // MAX-MIN Ant System; pairs with evaporation(0.9) and randomFactor(0)
+        public Builder maxMin(boolean maxMin) {
+            this.maxMin = maxMin;
+            return this;
+        }
+
+        public Builder pBest(double pBest) {
+            this.pBest = pBest;
+            return this;
+        }
+
+        public Builder restartLimit(int restartLimit) {
+            this.restartLimit = restartLimit;
+            return this;
+        }
+
+        public Builder localSearch(LocalSearch.Factory localSearch) {
+            this.localSearch = localSearch;
+            return this;
+        }
+
+        public Builder singlePrecision(boolean singlePrecision) {
+            this.singlePrecision = singlePrecision;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder timeLimit(Duration timeLimit) {
+            this.timeLimit = timeLimit;
+            return this;
+        }
+
+        public Builder targetLength(double targetLength) {
+            this.targetLength = targetLength;
+            return this;
+        }
+
+        public Builder stallIterations(int stallIterations) {
+            this.stallIterations = stallIterations;
+            return this;
+        }
+
+        public Parameters build() {
+            return new Parameters(alpha, beta, evaporation, q, randomFactor, maxIterations, attempts, ants, threads,
+                    workStealing, islandMode, migrationInterval, candidateListSize, maxMin, pBest, restartLimit,
+                    localSearch, singlePrecision, seed, timeLimit, targetLength, stallIterations);
+        }
+    }
+}
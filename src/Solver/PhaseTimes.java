@@ -0,0 +1,8 @@
+package Solver;
+
+// Time spent per phase of the iterations, summed over a run. Where the engine overlaps the trail update
+// with updateBest, trailUpdateNanos is only the part left to wait for afterwards. In island mode every
+// phase is summed over the concurrently running islands, i.e. thread time rather than wall clock, so a
+// phase can exceed the run's elapsedNanos.
+public record PhaseTimes(long constructToursNanos, long updateBestNanos, long trailUpdateNanos) {
+}
@@ -0,0 +1,19 @@
+package Solver;
+
+// Outcome of one solve. iterationsToBest counts the iterations of all attempts up to the one that found
+// the best tour (in island mode, those of the winning island); iterations counts every iteration run.
+// bestTour is null only for a run cancelled or out of time before its first tour. elapsedNanos is wall clock;
+// phaseTimes are summed over the islands in island mode and can add up to more than it.
+public record Result(int[] bestTour, double bestLength, long iterationsToBest, long iterations, int restarts,
+                     PhaseTimes phaseTimes, long elapsedNanos, Termination termination) {
+
+    public Result {
+        if (bestTour != null) bestTour = bestTour.clone();
+    }
+
+    // A copy, so the result stays immutable
+    @Override
+    public int[] bestTour() {
+        return bestTour == null ? null : bestTour.clone();
+    }
+}
@@ -0,0 +1,53 @@
+package Solver;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+// A solve running on its own thread, from TspSolver.start. best() may be polled from any thread at any
+// time without locking; cancel() makes the run stop at the next tour and return what it has.
+public final class Run {
+    private final Supplier<Incumbent> incumbent;
+    private final Runnable cancellation;
+    private final CompletableFuture<Result> result = new CompletableFuture<>();
+
+    private Run(Supplier<Incumbent> incumbent, Runnable cancellation) {
+        this.incumbent = incumbent;
+        this.cancellation = cancellation;
+    }
+
+    // For the engines: runs solve on a new platform thread named name
+    public static Run start(String name, Supplier<Incumbent> incumbent, Runnable cancellation, Supplier<Result> solve) {
+        Run run = new Run(incumbent, cancellation);
+        Thread.ofPlatform().name(name).start(() -> {
+            try {
+                run.result.complete(solve.get());
+            } catch (Throwable t) {
+                run.result.completeExceptionally(t);
+            }
+        });
+        return run;
+    }
+
+    // null until the first iteration is done
+    public Incumbent best() {
+        return incumbent.get();
+    }
+
+    public void cancel() {
+        cancellation.run();
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    // Waits for the run to stop; a failure of the run is rethrown
+    public Result await() throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Solve failed", e.getCause());
+        }
+    }
+}
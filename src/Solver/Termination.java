@@ -0,0 +1,10 @@
+package Solver;
+
+// Why a run stopped. COMPLETED covers the iteration budget of every attempt as well as MAX-MIN's early stop.
+public enum Termination {
+    COMPLETED,
+    TIME_LIMIT,
+    TARGET_LENGTH,
+    STALLED,   // no better tour for Parameters.stallIterations iterations
+    CANCELLED
+}
@@ -0,0 +1,14 @@
+package Solver;
+
+import Matrix.DistanceMatrix;
+
+// Library entry point: a solver is configured once with Parameters, then solves instances and returns
+// the outcome instead of printing it. Implementations: Parallel.ParallelSolver and Sequential.SequentialSolver.
+public interface TspSolver {
+    Result solve(DistanceMatrix instance);
+
+    // Solves on a new thread, publishing the best tour as it improves; the run can be cancelled
+    Run start(DistanceMatrix instance);
+
+    Parameters parameters();
+}